@@ -0,0 +1,91 @@
+package vsu.cs.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import vsu.cs.CompositeTransformation;
+import vsu.cs.bulk.ParallelTransformer;
+import vsu.cs.bulk.SoaTransformKernel;
+import vsu.cs.transformations.AffineTransformation;
+
+import javax.vecmath.Point3d;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplyBenchmark {
+    @Param({"1000", "1000000"})
+    public int pointCount;
+
+    private CompositeTransformation composite;
+    private AffineTransformation compiled;
+    private ParallelTransformer parallel;
+    private double[] xyz;
+    private double[] out;
+    private double[] xs, ys, zs;
+    private double[] outXs, outYs, outZs;
+    private Point3d[] points;
+
+    @Setup
+    public void setUp() {
+        composite = Chains.composite(16);
+        compiled = composite.compile();
+        parallel = new ParallelTransformer();
+        xyz = Chains.points(pointCount);
+        out = new double[xyz.length];
+        xs = new double[pointCount];
+        ys = new double[pointCount];
+        zs = new double[pointCount];
+        outXs = new double[pointCount];
+        outYs = new double[pointCount];
+        outZs = new double[pointCount];
+        points = new Point3d[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xs[i] = xyz[3 * i];
+            ys[i] = xyz[3 * i + 1];
+            zs[i] = xyz[3 * i + 2];
+            points[i] = new Point3d(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    @Benchmark
+    public void perPointComposite(Blackhole blackhole) {
+        for (Point3d point : points) {
+            blackhole.consume(composite.apply(point));
+        }
+    }
+
+    @Benchmark
+    public void perPointCompiled(Blackhole blackhole) {
+        for (Point3d point : points) {
+            blackhole.consume(compiled.apply(point));
+        }
+    }
+
+    @Benchmark
+    public double[] bulkComposite() {
+        composite.applyAll(xyz, out, 0, pointCount);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bulkCompiled() {
+        compiled.applyAll(xyz, out, 0, pointCount);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bulkParallel() {
+        parallel.applyAll(compiled, xyz, out, 0, pointCount);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bulkSoa() {
+        SoaTransformKernel.best().apply(compiled, xs, ys, zs, outXs, outYs, outZs, 0, pointCount);
+        return outXs;
+    }
+}
@@ -0,0 +1,22 @@
+package vsu.cs.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vsu.cs.transformations.Transformation;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuildBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int chainLength;
+
+    @Benchmark
+    public Transformation build() {
+        return Chains.builder(chainLength).build();
+    }
+}
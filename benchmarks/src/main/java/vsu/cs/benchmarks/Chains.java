@@ -0,0 +1,44 @@
+package vsu.cs.benchmarks;
+
+import vsu.cs.AffineBuilder;
+import vsu.cs.CompositeTransformation;
+import vsu.cs.transformations.*;
+
+final class Chains {
+    private Chains() {
+    }
+
+    static AffineBuilder builder(int length) {
+        AffineBuilder builder = new AffineBuilder();
+        for (int i = 0; i < length; i++) {
+            switch (i % 4) {
+                case 0 -> builder.translate(i, -i, 0.5 * i);
+                case 1 -> builder.rotate(Axis.values()[i % 3], 0.01 * i);
+                case 2 -> builder.scale(1.001, 0.999, 1.0005);
+                default -> builder.rotateQuat(Axis.values()[i % 3], 0.02 * i);
+            }
+        }
+        return builder;
+    }
+
+    static CompositeTransformation composite(int length) {
+        CompositeTransformation composite = new CompositeTransformation();
+        for (int i = 0; i < length; i++) {
+            switch (i % 4) {
+                case 0 -> composite.add(new TranslationTransformation(i, -i, 0.5 * i));
+                case 1 -> composite.add(new RotateTransformation(Axis.values()[i % 3], 0.01 * i));
+                case 2 -> composite.add(new ScaleTransformation(1.001, 0.999, 1.0005));
+                default -> composite.add(new RotateTransformationOnQuad(Axis.values()[i % 3], 0.02 * i));
+            }
+        }
+        return composite;
+    }
+
+    static double[] points(int count) {
+        double[] xyz = new double[3 * count];
+        for (int i = 0; i < xyz.length; i++) {
+            xyz[i] = (i * 31 % 1000) - 500;
+        }
+        return xyz;
+    }
+}
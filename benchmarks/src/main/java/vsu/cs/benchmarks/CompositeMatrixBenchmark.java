@@ -0,0 +1,51 @@
+package vsu.cs.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vsu.cs.CompositeTransformation;
+
+import javax.vecmath.Matrix4d;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeMatrixBenchmark {
+
+    @State(Scope.Thread)
+    public static class CachedState {
+        @Param({"10", "100"})
+        public int chainLength;
+        CompositeTransformation composite;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            composite = Chains.composite(chainLength);
+            composite.getMatrix();
+        }
+    }
+
+    @Benchmark
+    public Matrix4d cachedGetMatrix(CachedState state) {
+        return state.composite.getMatrix();
+    }
+
+    @Benchmark
+    public Matrix4d popAndAppend(CachedState state) {
+        CompositeTransformation composite = state.composite;
+        composite.add(composite.removeLast());
+        return composite.getMatrix();
+    }
+
+    /**
+     * Замена первой операции на саму себя сбрасывает все префиксы, поэтому пересчитывается вся цепочка.
+     * Сброс выполняется внутри измерения: он O(1) и не требует {@code Level.Invocation}.
+     */
+    @Benchmark
+    public Matrix4d dirtyGetMatrix(CachedState state) {
+        CompositeTransformation composite = state.composite;
+        composite.replace(0, composite.get(0));
+        return composite.getMatrix();
+    }
+}
@@ -0,0 +1,48 @@
+package vsu.cs.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vsu.cs.transformations.Axis;
+import vsu.cs.transformations.RotateTransformation;
+import vsu.cs.transformations.RotateTransformationOnQuad;
+
+import javax.vecmath.Matrix4d;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RotationBenchmark {
+    public double angle = 0.7;
+
+    private RotateTransformation matrixRotation;
+    private RotateTransformationOnQuad quatRotation;
+
+    @Setup
+    public void setUp() {
+        matrixRotation = new RotateTransformation(Axis.Y, angle);
+        quatRotation = new RotateTransformationOnQuad(Axis.Y, angle);
+    }
+
+    @Benchmark
+    public RotateTransformation createMatrixRotation() {
+        return new RotateTransformation(Axis.Y, angle);
+    }
+
+    @Benchmark
+    public RotateTransformationOnQuad createQuatRotation() {
+        return new RotateTransformationOnQuad(Axis.Y, angle);
+    }
+
+    @Benchmark
+    public Matrix4d matrixRotationGetMatrix() {
+        return matrixRotation.getMatrix();
+    }
+
+    @Benchmark
+    public Matrix4d quatRotationGetMatrix() {
+        return quatRotation.getMatrix();
+    }
+}
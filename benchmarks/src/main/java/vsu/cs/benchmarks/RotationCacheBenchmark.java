@@ -0,0 +1,68 @@
+package vsu.cs.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import vsu.cs.transformations.RotationCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш sin/cos против прямого вычисления на наборе повторяющихся углов (шаг 1°, несколько оборотов,
+ * как у ключевых кадров). Время — на один угол.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RotationCacheBenchmark {
+    private static final int ANGLES = 1024;
+
+    private final RotationCache cache = new RotationCache(RotationCache.DEFAULT_CAPACITY);
+    private double[] angles;
+
+    @Setup
+    public void setUp() {
+        angles = new double[ANGLES];
+        for (int i = 0; i < ANGLES; i++) {
+            angles[i] = Math.toRadians((i * 37) % 1440 - 720);
+        }
+        for (double angle : angles) {
+            cache.get(angle);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANGLES)
+    public void cached(Blackhole blackhole) {
+        for (double angle : angles) {
+            RotationCache.SinCos sinCos = cache.get(angle);
+            blackhole.consume(sinCos.getSin());
+            blackhole.consume(sinCos.getCos());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANGLES)
+    public void recomputed(Blackhole blackhole) {
+        for (double angle : angles) {
+            blackhole.consume(Math.sin(angle));
+            blackhole.consume(Math.cos(angle));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANGLES)
+    @Threads(4)
+    public void cachedContended(Blackhole blackhole) {
+        cached(blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANGLES)
+    @Threads(4)
+    public void recomputedContended(Blackhole blackhole) {
+        recomputed(blackhole);
+    }
+}
@@ -0,0 +1,45 @@
+package vsu.cs.bulk;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import vsu.cs.metrics.TransformationMetrics;
+import vsu.cs.transformations.AffineTransformation;
+
+/**
+ * SIMD-ядро на {@code jdk.incubator.vector}: за итерацию обрабатывает {@code SPECIES.length()} точек.
+ * Используются раздельные умножение и сложение (без FMA), поэтому результат совпадает со скалярным ядром.
+ * Хвост, не кратный ширине вектора, досчитывается скалярно.
+ */
+public final class VectorSoaTransformKernel implements SoaTransformKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void apply(AffineTransformation t,
+                      double[] xs, double[] ys, double[] zs,
+                      double[] outXs, double[] outYs, double[] outZs,
+                      int offset, int count) {
+        ScalarSoaTransformKernel.checkBounds(offset, count, xs, ys, zs, outXs, outYs, outZs);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+
+        double m00 = t.getElement(0, 0), m01 = t.getElement(0, 1), m02 = t.getElement(0, 2), m03 = t.getElement(0, 3);
+        double m10 = t.getElement(1, 0), m11 = t.getElement(1, 1), m12 = t.getElement(1, 2), m13 = t.getElement(1, 3);
+        double m20 = t.getElement(2, 0), m21 = t.getElement(2, 1), m22 = t.getElement(2, 2), m23 = t.getElement(2, 3);
+
+        int end = offset + count;
+        int vectorEnd = offset + SPECIES.loopBound(count);
+        int i = offset;
+        for (; i < vectorEnd; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, ys, i);
+            DoubleVector z = DoubleVector.fromArray(SPECIES, zs, i);
+
+            x.mul(m00).add(y.mul(m01)).add(z.mul(m02)).add(m03).intoArray(outXs, i);
+            x.mul(m10).add(y.mul(m11)).add(z.mul(m12)).add(m13).intoArray(outYs, i);
+            x.mul(m20).add(y.mul(m21)).add(z.mul(m22)).add(m23).intoArray(outZs, i);
+        }
+        ScalarSoaTransformKernel.applyRange(t, xs, ys, zs, outXs, outYs, outZs, i, end);
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+}
@@ -2,11 +2,18 @@ package vsu.cs;
 
 import vsu.cs.transformations.*;
 
+import javax.vecmath.Vector3d;
+import java.util.Arrays;
+
 public class AffineBuilder implements AffineBuilderInterface {
-    private CompositeTransformation composite;
+    private final CompositeTransformation composite;
+    private int[] checkpoints;
+    private int stateDepth;
 
     public AffineBuilder() {
-        this.composite = new CompositeTransformation();
+        this.composite = new CompositeTransformation(true);
+        this.checkpoints = new int[8];
+        this.stateDepth = 0;
     }
 
     public AffineBuilder scale(double sx, double sy, double sz) {
@@ -107,6 +114,18 @@ public class AffineBuilder implements AffineBuilderInterface {
             return this;
     }
 
+    @Override
+    public AffineBuilder rotateEuler(EulerOrder order, double a, double b, double c) {
+        composite.add(RotateTransformationOnMatrix.euler(order, a, b, c));
+        return this;
+    }
+
+    @Override
+    public AffineBuilder rotate(Vector3d axis, double angle) {
+        composite.add(RotateTransformationOnMatrix.axisAngle(axis, angle));
+        return this;
+    }
+
     @Override
     public AffineBuilder translateX(double translateX) {
         composite.add(new TranslationTransformation(translateX, 0, 0));
@@ -143,19 +162,118 @@ public class AffineBuilder implements AffineBuilderInterface {
     }
 
     @Override
-    public Transformation build() {
-        return composite;
+    public AffineBuilder scale(Axis axis, Parameter value) {
+        composite.add(ParametricScaleTransformation.along(axis, value));
+        return this;
+    }
+
+    @Override
+    public AffineBuilder scaleUniform(Parameter uniformScale) {
+        composite.add(new ParametricScaleTransformation(uniformScale));
+        return this;
+    }
+
+    @Override
+    public AffineBuilder rotate(Axis axis, Parameter angle) {
+        composite.add(new ParametricRotateTransformation(axis, angle));
+        return this;
+    }
+
+    @Override
+    public AffineBuilder translate(Axis axis, Parameter value) {
+        composite.add(ParametricTranslationTransformation.along(axis, value));
+        return this;
+    }
+
+    @Override
+    public AffineTransformation build() {
+        return composite.compile();
+    }
+
+    @Override
+    public FloatAffineTransformation buildFloat() {
+        return composite.compileFloat();
+    }
+
+    /**
+     * Возвращает живую цепочку, связанную с параметрами: после изменения {@link Parameter}
+     * достаточно снова вызвать {@code getMatrix}/{@code applyAll}/{@code concatenateTo},
+     * пересчитаются только операции начиная с первой изменившейся. Дальнейшие вызовы билдера цепочку не меняют.
+     */
+    @Override
+    public CompositeTransformation buildAnimated() {
+        return composite.copy();
     }
 
     @Override
     public SaveTransformation saveState() {
-        return new SaveTransformation(this.composite.getMatrix());
+        return new SaveTransformation(this.composite);
     }
 
+    /**
+     * Заменяет цепочку сохранённым состоянием. Стек контрольных точек {@link #pushState()} очищается.
+     */
     @Override
     public AffineBuilder restoreState(SaveTransformation transformation) {
-        this.composite = new CompositeTransformation();
+        stateDepth = 0;
+        composite.setFusionBarrier(0);
+        composite.truncate(0);
         composite.add(transformation);
         return this;
     }
+
+    /**
+     * Запоминает контрольную точку — текущую длину цепочки. Операции до неё больше не сливаются с новыми,
+     * поэтому откат сводится к усечению списка операций; матрица восстановленной цепочки берётся из кэша префиксов.
+     */
+    @Override
+    public AffineBuilder pushState() {
+        if (stateDepth == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, 2 * stateDepth);
+        }
+        int size = composite.size();
+        checkpoints[stateDepth++] = size;
+        composite.setFusionBarrier(size);
+        return this;
+    }
+
+    /**
+     * Откатывает цепочку к последней контрольной точке, сама точка остаётся в стеке.
+     */
+    @Override
+    public AffineBuilder restoreState() {
+        composite.truncate(checkpoints[topState()]);
+        return this;
+    }
+
+    /**
+     * Откатывает цепочку к последней контрольной точке и снимает её со стека.
+     */
+    @Override
+    public AffineBuilder popState() {
+        restoreState();
+        return commitState();
+    }
+
+    /**
+     * Снимает последнюю контрольную точку, оставляя цепочку как есть.
+     */
+    @Override
+    public AffineBuilder commitState() {
+        stateDepth = topState();
+        composite.setFusionBarrier(stateDepth == 0 ? 0 : checkpoints[stateDepth - 1]);
+        return this;
+    }
+
+    @Override
+    public int getStateDepth() {
+        return stateDepth;
+    }
+
+    private int topState() {
+        if (stateDepth == 0) {
+            throw new IllegalStateException("Стек состояний пуст");
+        }
+        return stateDepth - 1;
+    }
 }
@@ -1,13 +1,25 @@
 package vsu.cs;
 
 import vsu.cs.transformations.Axis;
+import vsu.cs.transformations.EulerOrder;
+import vsu.cs.transformations.FloatAffineTransformation;
+import vsu.cs.transformations.Parameter;
 import vsu.cs.transformations.SaveTransformation;
 import vsu.cs.transformations.Transformation;
 
+import javax.vecmath.Vector3d;
+
 public interface AffineBuilderInterface {
     Transformation build();
+    CompositeTransformation buildAnimated();
+    FloatAffineTransformation buildFloat();
     SaveTransformation saveState();
     AffineBuilder restoreState(SaveTransformation transformation);
+    AffineBuilder pushState();
+    AffineBuilder restoreState();
+    AffineBuilder popState();
+    AffineBuilder commitState();
+    int getStateDepth();
 
     AffineBuilder scaleX(double scaleX);
     AffineBuilder scaleY(double scaleY);
@@ -23,9 +35,15 @@ public interface AffineBuilderInterface {
     AffineBuilder rotateZQuat(double rotateZ);
     AffineBuilder rotate(Axis axis, double rotate);
     AffineBuilder rotateQuat(Axis axis, double rotate);
+    AffineBuilder rotateEuler(EulerOrder order, double a, double b, double c);
+    AffineBuilder rotate(Vector3d axis, double angle);
     AffineBuilder translateX(double translateX);
     AffineBuilder translateY(double translateY);
     AffineBuilder translateZ(double translateZ);
     AffineBuilder translate(Axis axis, double value);
     AffineBuilder translate(double translateX, double translateY, double translateZ);
+    AffineBuilder scale(Axis axis, Parameter value);
+    AffineBuilder scaleUniform(Parameter uniformScale);
+    AffineBuilder rotate(Axis axis, Parameter angle);
+    AffineBuilder translate(Axis axis, Parameter value);
 }
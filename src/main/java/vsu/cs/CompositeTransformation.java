@@ -1,56 +1,357 @@
 package vsu.cs;
 
+import vsu.cs.metrics.TransformationMetrics;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.ParametricTransformation;
 import vsu.cs.transformations.Transformation;
+import vsu.cs.transformations.TrsDecomposition;
 
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Композиция преобразований с кэшем префиксных произведений: {@code prefixes[i]} хранит
+ * произведение операций {@code 0..i}. Добавление операции пересчитывает одно произведение,
+ * удаление или замена последних k операций — k произведений. Слияние соседних операций включается
+ * конструктором {@link #CompositeTransformation(boolean)} (так работает {@link AffineBuilder}).
+ * Для {@link ParametricTransformation} запоминаются индексы таких операций и версии их параметров; при обращении
+ * проверяются только они, и пересчёт начинается с первой изменившейся операции.
+ * Обратная матрица (для нормалей — обратная транспонированная) строится лениво из обратных шагов
+ * в обратном порядке и кэшируется до следующего изменения композиции.
+ */
 public class CompositeTransformation implements Transformation {
     private final List<Transformation> transformations;
-    private Matrix4d cachedMatrix;
-    private boolean isDirty;
-
+    private final List<AffineMatrix> prefixes;
+    private final AffineMatrix identity;
+    private int validPrefixes;
+    private int parametricCount;
+    private int[] parametricIndices;
+    private long[] seenVersions;
+    private final AffineMatrix cachedInverse;
+    private long modCount;
+    private long inverseModCount;
+    private CompositeTransformation inverseChain;
+    private long inverseChainModCount;
+    private boolean readOnly;
+    private double cachedMaxScale;
+    private long maxScaleModCount;
+    private TrsDecomposition decomposition;
+    private long decompositionModCount;
+    private int fusionBarrier;
+    private final boolean fusing;
 
+    /**
+     * Композиция, хранящая операции ровно в порядке добавления: индексы {@link #get}, {@link #replace},
+     * {@link #removeLast} и {@link #truncate} соответствуют вызовам {@link #add}.
+     */
     public CompositeTransformation() {
+        this(false);
+    }
+
+    /**
+     * При {@code fusing == true} новая операция сливается с предыдущей, если это возможно ({@link Transformation#fuse}):
+     * цепочка короче, но индексы операций перестают совпадать с числом вызовов {@link #add}.
+     */
+    public CompositeTransformation(boolean fusing) {
+        this.fusing = fusing;
         this.transformations = new ArrayList<>();
-        this.cachedMatrix = new Matrix4d(
-                1, 0, 0, 0,
-                0, 1, 0, 0,
-                0, 0, 1, 0,
-                0, 0, 0, 1
-        );
-        this.isDirty = false;
+        this.prefixes = new ArrayList<>();
+        this.identity = new AffineMatrix();
+        this.validPrefixes = 0;
+        this.parametricCount = 0;
+        this.parametricIndices = new int[0];
+        this.seenVersions = new long[0];
+        this.cachedInverse = new AffineMatrix();
+        this.modCount = 0;
+        this.inverseModCount = -1;
+        this.inverseChainModCount = -1;
+        this.readOnly = false;
+        this.maxScaleModCount = -1;
+        this.decompositionModCount = -1;
+    }
+
+    public CompositeTransformation copy() {
+        CompositeTransformation copy = new CompositeTransformation();
+        copy.transformations.addAll(transformations);
+        copy.parametricCount = parametricCount;
+        copy.parametricIndices = Arrays.copyOf(parametricIndices, parametricCount);
+        copy.seenVersions = Arrays.copyOf(seenVersions, parametricCount);
+        return copy;
     }
 
     public void add(Transformation transformation) {
+        checkWritable();
+        modCount++;
+        int last = transformations.size() - 1;
+        if (fusing && last >= fusionBarrier) {
+            Transformation fused = transformations.get(last).fuse(transformation);
+            if (fused != null) {
+                untrack(last, transformations.set(last, fused));
+                track(last, fused);
+                invalidateFrom(last);
+                return;
+            }
+        }
         this.transformations.add(transformation);
-        this.isDirty = true;
+        track(transformations.size() - 1, transformation);
     }
 
-    private void updateCachedMatrix() {
-        Matrix4d result = new Matrix4d(
-                1, 0, 0, 0,
-                0, 1, 0, 0,
-                0, 0, 1, 0,
-                0, 0, 0, 1
-        );
+    public Transformation removeLast() {
+        checkWritable();
+        if (transformations.isEmpty()) {
+            throw new IllegalStateException("Композиция пуста");
+        }
+        Transformation removed = transformations.remove(transformations.size() - 1);
+        untrack(transformations.size(), removed);
+        invalidateFrom(transformations.size());
+        return removed;
+    }
+
+    /**
+     * Оставляет первые {@code size} операций. Кэшированные префиксы остаются в пуле,
+     * поэтому матрица усечённой цепочки доступна без пересчёта.
+     */
+    public void truncate(int size) {
+        checkWritable();
+        Objects.checkIndex(size, transformations.size() + 1);
+        for (int i = transformations.size() - 1; i >= size; i--) {
+            untrack(i, transformations.remove(i));
+        }
+        invalidateFrom(size);
+    }
 
+    /**
+     * Новые операции не сливаются с операциями, индекс которых меньше {@code index}: их можно вернуть через {@link #truncate}.
+     */
+    void setFusionBarrier(int index) {
+        this.fusionBarrier = index;
+    }
+
+    public Transformation replace(int index, Transformation transformation) {
+        checkWritable();
+        Transformation previous = transformations.set(index, transformation);
+        untrack(index, previous);
+        track(index, transformation);
+        invalidateFrom(index);
+        return previous;
+    }
+
+    public Transformation get(int index) {
+        return transformations.get(index);
+    }
+
+    public int size() {
+        return transformations.size();
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
 
-        for (Transformation transformation : transformations) {
-            Matrix4d temp = new Matrix4d();
-            temp.mul(transformation.getMatrix(), result);
-            result.set(temp);
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Композиция доступна только для чтения");
         }
-        this.cachedMatrix.set(result);
-        this.isDirty = false;
     }
+
+    /**
+     * Обратная цепочка: обратные операции в обратном порядке (обратный масштаб, противоположный угол,
+     * перенос с обратным знаком), соседние шаги при этом сливаются как обычно. Результат кэшируется
+     * до следующего изменения композиции и доступен только для чтения.
+     *
+     * @throws IllegalStateException если в цепочке есть нулевой масштаб
+     */
     @Override
-    public Matrix4d getMatrix() {
-        if (isDirty) {
+    public CompositeTransformation inverse() {
+        if (inverseChain == null || inverseChainModCount != modCount) {
+            CompositeTransformation inverse = new CompositeTransformation(true);
+            for (int i = transformations.size() - 1; i >= 0; i--) {
+                inverse.add(transformations.get(i).inverse());
+            }
+            inverse.readOnly = true;
+            inverseChain = inverse;
+            inverseChainModCount = modCount;
+        }
+        return inverseChain;
+    }
+
+    /**
+     * Запоминает параметрическую операцию с индексом {@code index}; индексы хранятся по возрастанию.
+     */
+    private void track(int index, Transformation transformation) {
+        if (!(transformation instanceof ParametricTransformation)) {
+            return;
+        }
+        if (parametricIndices.length == parametricCount) {
+            int capacity = Math.max(4, 2 * parametricCount);
+            parametricIndices = Arrays.copyOf(parametricIndices, capacity);
+            seenVersions = Arrays.copyOf(seenVersions, capacity);
+        }
+        int position = -Arrays.binarySearch(parametricIndices, 0, parametricCount, index) - 1;
+        System.arraycopy(parametricIndices, position, parametricIndices, position + 1, parametricCount - position);
+        System.arraycopy(seenVersions, position, seenVersions, position + 1, parametricCount - position);
+        parametricIndices[position] = index;
+        seenVersions[position] = ((ParametricTransformation) transformation).getVersion();
+        parametricCount++;
+    }
+
+    private void untrack(int index, Transformation transformation) {
+        if (!(transformation instanceof ParametricTransformation)) {
+            return;
+        }
+        int position = Arrays.binarySearch(parametricIndices, 0, parametricCount, index);
+        parametricCount--;
+        System.arraycopy(parametricIndices, position + 1, parametricIndices, position, parametricCount - position);
+        System.arraycopy(seenVersions, position + 1, seenVersions, position, parametricCount - position);
+    }
+
+    private void checkParameters() {
+        for (int k = 0; k < parametricCount; k++) {
+            int index = parametricIndices[k];
+            long version = ((ParametricTransformation) transformations.get(index)).getVersion();
+            if (version != seenVersions[k]) {
+                seenVersions[k] = version;
+                invalidateFrom(index);
+            }
+        }
+    }
+
+    private void invalidateFrom(int index) {
+        modCount++;
+        if (validPrefixes > index) {
+            validPrefixes = index;
+        }
+    }
+
+    private void updateCachedMatrix() {
+        int size = transformations.size();
+        while (prefixes.size() < size) {
+            prefixes.add(new AffineMatrix());
+        }
+        for (int i = validPrefixes; i < size; i++) {
+            AffineMatrix prefix = prefixes.get(i);
+            prefix.set(i == 0 ? identity : prefixes.get(i - 1));
+            transformations.get(i).concatenateTo(prefix);
+        }
+        validPrefixes = size;
+    }
+
+    private AffineMatrix cachedMatrix() {
+        int size = transformations.size();
+        if (size == 0) {
+            return identity;
+        }
+        if (parametricCount > 0) {
+            checkParameters();
+        }
+        if (validPrefixes < size) {
+            long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
             updateCachedMatrix();
+            if (TransformationMetrics.ENABLED) {
+                TransformationMetrics.recordRecompute(start);
+            }
+        } else if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordCacheHit();
         }
-        return new Matrix4d(cachedMatrix);
+        return prefixes.get(size - 1);
+    }
+
+    private AffineMatrix cachedInverse() {
+        cachedMatrix();
+        if (inverseModCount != modCount) {
+            cachedInverse.setIdentity();
+            for (int i = transformations.size() - 1; i >= 0; i--) {
+                transformations.get(i).concatenateInverseTo(cachedInverse);
+            }
+            inverseModCount = modCount;
+        }
+        return cachedInverse;
+    }
+
+    public double getMaxScale() {
+        AffineMatrix matrix = cachedMatrix();
+        if (maxScaleModCount != modCount) {
+            cachedMaxScale = matrix.maxScale();
+            maxScaleModCount = modCount;
+        }
+        return cachedMaxScale;
+    }
+
+    @Override
+    public TrsDecomposition decompose() {
+        AffineMatrix matrix = cachedMatrix();
+        if (decompositionModCount != modCount) {
+            decomposition = TrsDecomposition.of(matrix);
+            decompositionModCount = modCount;
+        }
+        return decomposition;
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        return cachedMatrix().toMatrix4d();
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiply(cachedMatrix());
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        target.preMultiply(cachedInverse());
+    }
+
+    @Override
+    public AffineTransformation compile() {
+        return new AffineTransformation(cachedMatrix());
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        cachedMatrix().get(dest);
+    }
+
+    @Override
+    public Point3d apply(Point3d point) {
+        Point3d result = new Point3d();
+        cachedMatrix().transform(point, result);
+        return result;
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        cachedMatrix().transform(in, out);
+    }
+
+    @Override
+    public void applyAll(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        cachedMatrix().transform(xyzIn, xyzOut, offset, count);
+    }
+
+    @Override
+    public void applyVector(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        cachedMatrix().transformVectors(xyzIn, xyzOut, offset, count);
+    }
+
+    @Override
+    public void applyNormal(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        cachedInverse().transformTransposed(xyzIn, xyzOut, offset, count);
+    }
+
+    @Override
+    public void transformBoxes(double[] boxesIn, double[] boxesOut, int offset, int count) {
+        cachedMatrix().transformBoxes(boxesIn, boxesOut, offset, count);
+    }
+
+    @Override
+    public void transformSpheres(double[] spheresIn, double[] spheresOut, int offset, int count) {
+        double maxScale = getMaxScale();
+        cachedMatrix().transformSpheres(spheresIn, spheresOut, offset, count, maxScale);
     }
 }
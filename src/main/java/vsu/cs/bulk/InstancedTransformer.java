@@ -0,0 +1,183 @@
+package vsu.cs.bulk;
+
+import vsu.cs.metrics.TransformationMetrics;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.Transformation;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Применение N аффинных матриц к одному меш-буферу из V вершин за один проход.
+ * Матрицы хранятся struct-of-arrays: коэффициент {@code k} (0..11, по строкам 3x4) экземпляра {@code i}
+ * лежит в {@code matrices[k * stride + i]}, где {@code stride} по умолчанию равен числу экземпляров
+ * (для буферов из пула — их ёмкости). Результат экземпляра {@code i} пишется в
+ * {@code out[3 * (i * V + v)]}. Обход идёт плитками по экземплярам и вершинам, плитки экземпляров
+ * распределяются по {@link ForkJoinPool}.
+ */
+public class InstancedTransformer {
+    public static final int COEFFICIENTS = 12;
+    public static final int DEFAULT_INSTANCE_TILE = 16;
+    public static final int DEFAULT_VERTEX_TILE = 1024;
+
+    private final ForkJoinPool pool;
+    private final int instanceTile;
+    private final int vertexTile;
+
+    public InstancedTransformer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_INSTANCE_TILE, DEFAULT_VERTEX_TILE);
+    }
+
+    public InstancedTransformer(ForkJoinPool pool, int instanceTile, int vertexTile) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (instanceTile <= 0 || vertexTile <= 0) {
+            throw new IllegalArgumentException("Invalid tile size: " + instanceTile + ", " + vertexTile);
+        }
+        this.pool = pool;
+        this.instanceTile = instanceTile;
+        this.vertexTile = vertexTile;
+    }
+
+    /**
+     * Упаковывает преобразования в struct-of-arrays формат для {@link #applyAll}.
+     */
+    public static double[] pack(Transformation... transformations) {
+        double[] matrices = new double[COEFFICIENTS * transformations.length];
+        pack(matrices, transformations.length, transformations);
+        return matrices;
+    }
+
+    /**
+     * Упаковывает преобразования в заранее выделенный буфер с шагом {@code stride} (ёмкостью пула).
+     */
+    public static void pack(double[] matrices, int stride, Transformation... transformations) {
+        int n = transformations.length;
+        checkStride(matrices, stride, n);
+        AffineMatrix m = new AffineMatrix();
+        for (int i = 0; i < n; i++) {
+            m.setIdentity();
+            transformations[i].concatenateTo(m);
+            matrices[i] = m.m00;
+            matrices[stride + i] = m.m01;
+            matrices[2 * stride + i] = m.m02;
+            matrices[3 * stride + i] = m.m03;
+            matrices[4 * stride + i] = m.m10;
+            matrices[5 * stride + i] = m.m11;
+            matrices[6 * stride + i] = m.m12;
+            matrices[7 * stride + i] = m.m13;
+            matrices[8 * stride + i] = m.m20;
+            matrices[9 * stride + i] = m.m21;
+            matrices[10 * stride + i] = m.m22;
+            matrices[11 * stride + i] = m.m23;
+        }
+    }
+
+    /**
+     * Матрицы упакованы плотно: длина {@code matrices} должна быть ровно {@code 12 * instanceCount}.
+     * Для буферов большей ёмкости используйте {@link #applyAll(double[], int, int, double[], int, double[])}.
+     */
+    public void applyAll(double[] matrices, int instanceCount, double[] vertices, int vertexCount, double[] out) {
+        if (instanceCount < 0 || matrices.length != (long) COEFFICIENTS * instanceCount) {
+            throw new IllegalArgumentException("Matrix buffer length " + matrices.length
+                    + " does not match " + instanceCount + " instances; pass the stride explicitly");
+        }
+        applyAll(matrices, instanceCount, instanceCount, vertices, vertexCount, out);
+    }
+
+    public void applyAll(double[] matrices, int stride, int instanceCount,
+                         double[] vertices, int vertexCount, double[] out) {
+        if (instanceCount < 0 || vertexCount < 0) {
+            throw new IllegalArgumentException("Invalid counts: " + instanceCount + ", " + vertexCount);
+        }
+        checkStride(matrices, stride, instanceCount);
+        long outLength = 3L * instanceCount * vertexCount;
+        if (outLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Output is too large: " + outLength);
+        }
+        Objects.checkFromIndexSize(0, 3 * vertexCount, vertices.length);
+        Objects.checkFromIndexSize(0, (int) outLength, out.length);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+
+        Task task = new Task(this, matrices, stride, vertices, vertexCount, out, 0, instanceCount);
+        if (instanceCount <= instanceTile) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply((long) instanceCount * vertexCount, start);
+        }
+    }
+
+    private static void checkStride(double[] matrices, int stride, int instanceCount) {
+        if (stride < instanceCount) {
+            throw new IllegalArgumentException("Stride " + stride + " is smaller than instance count " + instanceCount);
+        }
+        if ((long) COEFFICIENTS * stride > matrices.length) {
+            throw new IllegalArgumentException("Matrix buffer is too small for stride " + stride + ": " + matrices.length);
+        }
+    }
+
+    private void applyTile(double[] matrices, int n, double[] vertices, int vertexCount, double[] out,
+                           int fromInstance, int toInstance) {
+        for (int v0 = 0; v0 < vertexCount; v0 += vertexTile) {
+            int v1 = Math.min(vertexCount, v0 + vertexTile);
+            for (int i = fromInstance; i < toInstance; i++) {
+                double m00 = matrices[i], m01 = matrices[n + i], m02 = matrices[2 * n + i], m03 = matrices[3 * n + i];
+                double m10 = matrices[4 * n + i], m11 = matrices[5 * n + i], m12 = matrices[6 * n + i], m13 = matrices[7 * n + i];
+                double m20 = matrices[8 * n + i], m21 = matrices[9 * n + i], m22 = matrices[10 * n + i], m23 = matrices[11 * n + i];
+
+                int o = 3 * (i * vertexCount + v0);
+                int end = 3 * v1;
+                for (int p = 3 * v0; p < end; p += 3, o += 3) {
+                    double x = vertices[p];
+                    double y = vertices[p + 1];
+                    double z = vertices[p + 2];
+                    out[o] = m00 * x + m01 * y + m02 * z + m03;
+                    out[o + 1] = m10 * x + m11 * y + m12 * z + m13;
+                    out[o + 2] = m20 * x + m21 * y + m22 * z + m23;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Task extends RecursiveAction {
+        private final InstancedTransformer transformer;
+        private final double[] matrices;
+        private final int stride;
+        private final double[] vertices;
+        private final int vertexCount;
+        private final double[] out;
+        private final int from;
+        private final int to;
+
+        Task(InstancedTransformer transformer, double[] matrices, int stride,
+             double[] vertices, int vertexCount, double[] out, int from, int to) {
+            this.transformer = transformer;
+            this.matrices = matrices;
+            this.stride = stride;
+            this.vertices = vertices;
+            this.vertexCount = vertexCount;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= transformer.instanceTile) {
+                transformer.applyTile(matrices, stride, vertices, vertexCount, out, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new Task(transformer, matrices, stride, vertices, vertexCount, out, from, middle),
+                    new Task(transformer, matrices, stride, vertices, vertexCount, out, middle, to)
+            );
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package vsu.cs.bulk;
+
+import vsu.cs.metrics.TransformationMetrics;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.Transformation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Потоковое преобразование вершин в бинарных файлах и direct-буферах без загрузки в кучу.
+ * Вершина {@code i} начинается с байта {@code offset + i * stride}, координаты — три подряд идущих double.
+ * Файл отображается в память окнами по {@code windowVertices} вершин, поэтому расход кучи не зависит от размера файла.
+ */
+public class MappedVertexTransformer {
+    public static final int POSITION_BYTES = 3 * Double.BYTES;
+    public static final int DEFAULT_WINDOW_VERTICES = 1 << 20;
+
+    private final long offset;
+    private final int stride;
+    private final int windowVertices;
+    private final ByteOrder order;
+
+    public MappedVertexTransformer() {
+        this(0, POSITION_BYTES);
+    }
+
+    public MappedVertexTransformer(long offset, int stride) {
+        this(offset, stride, DEFAULT_WINDOW_VERTICES, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public MappedVertexTransformer(long offset, int stride, int windowVertices, ByteOrder order) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset: " + offset);
+        }
+        if (stride < POSITION_BYTES) {
+            throw new IllegalArgumentException("Stride is smaller than a position: " + stride);
+        }
+        if (windowVertices <= 0 || (long) windowVertices * stride > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid window size: " + windowVertices);
+        }
+        this.offset = offset;
+        this.stride = stride;
+        this.windowVertices = windowVertices;
+        this.order = order;
+    }
+
+    public long vertexCount(long sizeBytes) {
+        if (sizeBytes - offset < POSITION_BYTES) {
+            return 0;
+        }
+        return (sizeBytes - offset - POSITION_BYTES) / stride + 1;
+    }
+
+    public long transform(Transformation transformation, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return transform(transformation, channel);
+        }
+    }
+
+    /**
+     * Копирует {@code input} в {@code output} средствами канала (без промежуточных массивов в куче)
+     * и преобразует координаты уже в выходном файле. Остальные атрибуты вершин сохраняются как есть.
+     */
+    public long transform(Transformation transformation, Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long copied = 0;
+            while (copied < size) {
+                copied += in.transferTo(copied, size - copied, out);
+            }
+            return transform(transformation, out);
+        }
+    }
+
+    public long transform(Transformation transformation, FileChannel channel) throws IOException {
+        AffineMatrix matrix = transformation.toAffineMatrix();
+        long count = vertexCount(channel.size());
+        for (long first = 0; first < count; first += windowVertices) {
+            int windowCount = (int) Math.min(windowVertices, count - first);
+            long position = offset + first * stride;
+            long length = (long) (windowCount - 1) * stride + POSITION_BYTES;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+            window.order(order);
+            transformWindow(matrix, window, 0, windowCount);
+        }
+        return count;
+    }
+
+    /**
+     * Преобразует вершины direct- или heap-буфера на месте, начиная с {@code offset} от начала буфера.
+     *
+     * @throws IllegalArgumentException если {@code offset} не адресуется в {@link ByteBuffer}
+     */
+    public int transform(Transformation transformation, ByteBuffer buffer) {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Offset is beyond ByteBuffer addressing: " + offset);
+        }
+        ByteBuffer view = buffer.duplicate().order(order);
+        long count = vertexCount(view.limit());
+        transformWindow(transformation.toAffineMatrix(), view, (int) offset, (int) count);
+        return (int) count;
+    }
+
+    private void transformWindow(AffineMatrix m, ByteBuffer buffer, int base, int count) {
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+        double m00 = m.m00, m01 = m.m01, m02 = m.m02, m03 = m.m03;
+        double m10 = m.m10, m11 = m.m11, m12 = m.m12, m13 = m.m13;
+        double m20 = m.m20, m21 = m.m21, m22 = m.m22, m23 = m.m23;
+
+        int stride = this.stride;
+        int end = base + count * stride;
+        for (int i = base; i < end; i += stride) {
+            double x = buffer.getDouble(i);
+            double y = buffer.getDouble(i + Double.BYTES);
+            double z = buffer.getDouble(i + 2 * Double.BYTES);
+            buffer.putDouble(i, m00 * x + m01 * y + m02 * z + m03);
+            buffer.putDouble(i + Double.BYTES, m10 * x + m11 * y + m12 * z + m13);
+            buffer.putDouble(i + 2 * Double.BYTES, m20 * x + m21 * y + m22 * z + m23);
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package vsu.cs.bulk;
+
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.Transformation;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельное применение преобразования к упакованному массиву точек x, y, z.
+ * Массив режется на куски по {@code chunkSize} точек, которые обрабатываются в {@link ForkJoinPool}.
+ * Каждая точка считается тем же кодом, что и {@link AffineTransformation#applyAll},
+ * поэтому результат побитово совпадает с последовательным вариантом.
+ */
+public class ParallelTransformer {
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 15;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+    private final int chunkSize;
+
+    public ParallelTransformer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelTransformer(ForkJoinPool pool) {
+        this(pool, DEFAULT_SEQUENTIAL_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelTransformer(ForkJoinPool pool, int sequentialThreshold, int chunkSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (sequentialThreshold < 0) {
+            throw new IllegalArgumentException("Invalid sequential threshold: " + sequentialThreshold);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+        this.chunkSize = chunkSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void applyAll(Transformation transformation, double[] xyzIn, double[] xyzOut, int offset, int count) {
+        checkBounds(xyzIn, xyzOut, offset, count);
+        AffineTransformation affine = transformation.compile();
+        if (count <= sequentialThreshold) {
+            affine.applyAll(xyzIn, xyzOut, offset, count);
+            return;
+        }
+        pool.invoke(new ChunkTask(affine, xyzIn, xyzOut, offset, count, chunkSize));
+    }
+
+    public void applyAll(Transformation transformation, double[] xyz, int offset, int count) {
+        applyAll(transformation, xyz, xyz, offset, count);
+    }
+
+    private static void checkBounds(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        if (count < 0 || count > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, 3 * count, xyzIn.length);
+        Objects.checkFromIndexSize(offset, 3 * count, xyzOut.length);
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveAction {
+        private final AffineTransformation affine;
+        private final double[] xyzIn;
+        private final double[] xyzOut;
+        private final int offset;
+        private final int count;
+        private final int chunkSize;
+
+        ChunkTask(AffineTransformation affine, double[] xyzIn, double[] xyzOut, int offset, int count, int chunkSize) {
+            this.affine = affine;
+            this.xyzIn = xyzIn;
+            this.xyzOut = xyzOut;
+            this.offset = offset;
+            this.count = count;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= chunkSize) {
+                affine.applyAll(xyzIn, xyzOut, offset, count);
+                return;
+            }
+            int chunks = (count - 1) / chunkSize + 1;
+            int leftCount = (chunks / 2) * chunkSize;
+            invokeAll(
+                    new ChunkTask(affine, xyzIn, xyzOut, offset, leftCount, chunkSize),
+                    new ChunkTask(affine, xyzIn, xyzOut, offset + 3 * leftCount, count - leftCount, chunkSize)
+            );
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package vsu.cs.bulk;
+
+import vsu.cs.metrics.TransformationMetrics;
+import vsu.cs.transformations.AffineTransformation;
+
+import java.util.Objects;
+
+public final class ScalarSoaTransformKernel implements SoaTransformKernel {
+    public static final ScalarSoaTransformKernel INSTANCE = new ScalarSoaTransformKernel();
+
+    private ScalarSoaTransformKernel() {
+    }
+
+    @Override
+    public void apply(AffineTransformation t,
+                      double[] xs, double[] ys, double[] zs,
+                      double[] outXs, double[] outYs, double[] outZs,
+                      int offset, int count) {
+        checkBounds(offset, count, xs, ys, zs, outXs, outYs, outZs);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+        applyRange(t, xs, ys, zs, outXs, outYs, outZs, offset, offset + count);
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+
+    static void applyRange(AffineTransformation t,
+                           double[] xs, double[] ys, double[] zs,
+                           double[] outXs, double[] outYs, double[] outZs,
+                           int from, int to) {
+        double m00 = t.getElement(0, 0), m01 = t.getElement(0, 1), m02 = t.getElement(0, 2), m03 = t.getElement(0, 3);
+        double m10 = t.getElement(1, 0), m11 = t.getElement(1, 1), m12 = t.getElement(1, 2), m13 = t.getElement(1, 3);
+        double m20 = t.getElement(2, 0), m21 = t.getElement(2, 1), m22 = t.getElement(2, 2), m23 = t.getElement(2, 3);
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double z = zs[i];
+            outXs[i] = m00 * x + m01 * y + m02 * z + m03;
+            outYs[i] = m10 * x + m11 * y + m12 * z + m13;
+            outZs[i] = m20 * x + m21 * y + m22 * z + m23;
+        }
+    }
+
+    static void checkBounds(int offset, int count, double[]... arrays) {
+        for (double[] array : arrays) {
+            Objects.checkFromIndexSize(offset, count, array.length);
+        }
+    }
+}
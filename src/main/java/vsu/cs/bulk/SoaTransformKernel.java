@@ -0,0 +1,26 @@
+package vsu.cs.bulk;
+
+import vsu.cs.transformations.AffineTransformation;
+
+/**
+ * Ядро применения аффинного преобразования к точкам, хранящимся раздельными массивами xs, ys, zs.
+ * Входные и выходные массивы могут совпадать.
+ */
+public interface SoaTransformKernel {
+    void apply(AffineTransformation transformation,
+               double[] xs, double[] ys, double[] zs,
+               double[] outXs, double[] outYs, double[] outZs,
+               int offset, int count);
+
+    default void apply(AffineTransformation transformation, double[] xs, double[] ys, double[] zs, int offset, int count) {
+        apply(transformation, xs, ys, zs, xs, ys, zs, offset, count);
+    }
+
+    /**
+     * Возвращает SIMD-ядро на Vector API, если оно собрано (профиль {@code vector})
+     * и модуль {@code jdk.incubator.vector} доступен во время выполнения, иначе скалярное.
+     */
+    static SoaTransformKernel best() {
+        return SoaTransformKernels.BEST;
+    }
+}
@@ -0,0 +1,17 @@
+package vsu.cs.bulk;
+
+final class SoaTransformKernels {
+    static final String VECTOR_KERNEL_CLASS = "vsu.cs.bulk.VectorSoaTransformKernel";
+    static final SoaTransformKernel BEST = load();
+
+    private SoaTransformKernels() {
+    }
+
+    private static SoaTransformKernel load() {
+        try {
+            return (SoaTransformKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return ScalarSoaTransformKernel.INSTANCE;
+        }
+    }
+}
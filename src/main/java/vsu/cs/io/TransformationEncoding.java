@@ -0,0 +1,42 @@
+package vsu.cs.io;
+
+/**
+ * Формат записи одного состояния в потоке {@link TransformationWriter}.
+ * {@code AFFINE_*} хранят 12 коэффициентов строк 3x4, {@code TRS_*} — 10 чисел
+ * (перенос, кватернион, масштаб) и подходят только для преобразований без сдвига.
+ */
+public enum TransformationEncoding {
+    AFFINE_DOUBLE(1, 12 * Double.BYTES),
+    AFFINE_FLOAT(2, 12 * Float.BYTES),
+    /**
+     * IEEE 754 binary16: около трёх значащих десятичных цифр, годится для компактных снимков, а не для точной работы.
+     */
+    AFFINE_HALF(3, 12 * Short.BYTES),
+    TRS_DOUBLE(4, 10 * Double.BYTES),
+    TRS_FLOAT(5, 10 * Float.BYTES);
+
+    private final int id;
+    private final int recordBytes;
+
+    TransformationEncoding(int id, int recordBytes) {
+        this.id = id;
+        this.recordBytes = recordBytes;
+    }
+
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    static TransformationEncoding byId(int id) {
+        for (TransformationEncoding encoding : values()) {
+            if (encoding.id == id) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+}
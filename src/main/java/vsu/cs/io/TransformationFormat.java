@@ -0,0 +1,93 @@
+package vsu.cs.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Заголовок потока (8 байт, little-endian): магическое число, версия, кодировка, два резервных байта.
+ * Далее идут записи фиксированного размера {@link TransformationEncoding#getRecordBytes()}.
+ */
+final class TransformationFormat {
+    static final int MAGIC = 0x54535556; // "VUST" в little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    private TransformationFormat() {
+    }
+
+    static void writeHeader(ByteBuffer buffer, TransformationEncoding encoding) {
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) encoding.getId());
+        buffer.putShort((short) 0);
+    }
+
+    static TransformationEncoding readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a transformation stream");
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported format version: " + version);
+        }
+        int id = buffer.get();
+        TransformationEncoding encoding = TransformationEncoding.byId(id);
+        if (encoding == null) {
+            throw new IOException("Unknown encoding: " + id);
+        }
+        buffer.getShort();
+        return encoding;
+    }
+
+    /**
+     * float → binary16 с округлением к ближайшему чётному.
+     */
+    static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+        if (exponent == 0xFF) {
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        int e = exponent - 127 + 15;
+        if (e >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (e <= 0) {
+            if (e < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - e;
+            int half = mantissa >>> shift;
+            int rest = mantissa & ((1 << shift) - 1);
+            int middle = 1 << (shift - 1);
+            if (rest > middle || (rest == middle && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = (e << 10) | (mantissa >>> 13);
+        int rest = mantissa & 0x1FFF;
+        if (rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0)) {
+            half++;
+        }
+        return (short) (sign | half);
+    }
+
+    static float fromHalf(short value) {
+        int h = value & 0xFFFF;
+        int sign = (h & 0x8000) << 16;
+        int exponent = (h >>> 10) & 0x1F;
+        int mantissa = h & 0x3FF;
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            float subnormal = mantissa * 0x1p-24f;
+            return sign != 0 ? -subnormal : subnormal;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+}
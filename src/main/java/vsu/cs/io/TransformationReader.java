@@ -0,0 +1,161 @@
+package vsu.cs.io;
+
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Потоковое чтение состояний, записанных {@link TransformationWriter}. Кодировка берётся из заголовка.
+ * Чтение в {@link AffineMatrix} или массив не создаёт объектов; канал закрывается вместе с читателем.
+ */
+public class TransformationReader implements Closeable {
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final TransformationEncoding encoding;
+    private final ByteBuffer buffer;
+    private final AffineMatrix scratch;
+
+    public TransformationReader(ReadableByteChannel channel) throws IOException {
+        this(channel, DEFAULT_BUFFER_BYTES);
+    }
+
+    public TransformationReader(ReadableByteChannel channel, int bufferBytes) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel must not be null");
+        }
+        if (bufferBytes < TransformationFormat.HEADER_BYTES + TransformationEncoding.AFFINE_DOUBLE.getRecordBytes()) {
+            throw new IllegalArgumentException("Buffer is too small: " + bufferBytes);
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.flip();
+        this.scratch = new AffineMatrix();
+        if (!fill(TransformationFormat.HEADER_BYTES)) {
+            throw new EOFException("Missing stream header");
+        }
+        this.encoding = TransformationFormat.readHeader(buffer);
+    }
+
+    public TransformationEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return {@code false}, если поток закончился
+     */
+    public boolean read(AffineMatrix dest) throws IOException {
+        if (!fill(encoding.getRecordBytes())) {
+            return false;
+        }
+        switch (encoding) {
+            case AFFINE_DOUBLE:
+                dest.m00 = buffer.getDouble(); dest.m01 = buffer.getDouble(); dest.m02 = buffer.getDouble(); dest.m03 = buffer.getDouble();
+                dest.m10 = buffer.getDouble(); dest.m11 = buffer.getDouble(); dest.m12 = buffer.getDouble(); dest.m13 = buffer.getDouble();
+                dest.m20 = buffer.getDouble(); dest.m21 = buffer.getDouble(); dest.m22 = buffer.getDouble(); dest.m23 = buffer.getDouble();
+                break;
+            case AFFINE_FLOAT:
+                dest.m00 = buffer.getFloat(); dest.m01 = buffer.getFloat(); dest.m02 = buffer.getFloat(); dest.m03 = buffer.getFloat();
+                dest.m10 = buffer.getFloat(); dest.m11 = buffer.getFloat(); dest.m12 = buffer.getFloat(); dest.m13 = buffer.getFloat();
+                dest.m20 = buffer.getFloat(); dest.m21 = buffer.getFloat(); dest.m22 = buffer.getFloat(); dest.m23 = buffer.getFloat();
+                break;
+            case AFFINE_HALF:
+                dest.m00 = getHalf(); dest.m01 = getHalf(); dest.m02 = getHalf(); dest.m03 = getHalf();
+                dest.m10 = getHalf(); dest.m11 = getHalf(); dest.m12 = getHalf(); dest.m13 = getHalf();
+                dest.m20 = getHalf(); dest.m21 = getHalf(); dest.m22 = getHalf(); dest.m23 = getHalf();
+                break;
+            case TRS_DOUBLE:
+                dest.setTrs(
+                        buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                        buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                        buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+                break;
+            case TRS_FLOAT:
+                readTrsFloat(dest);
+                break;
+            default:
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+        }
+        return true;
+    }
+
+    /**
+     * Удобный вариант с выделением объекта на запись.
+     *
+     * @return {@code null}, если поток закончился
+     */
+    public AffineTransformation read() throws IOException {
+        return read(scratch) ? new AffineTransformation(scratch) : null;
+    }
+
+    /**
+     * Пакетное чтение в формате {@link TransformationWriter#writeAll(double[], int, int)}.
+     *
+     * @return число прочитанных состояний или {@code -1}, если поток закончился
+     */
+    public int readAll(double[] matrices, int offset, int maxCount) throws IOException {
+        if (maxCount < 0 || maxCount > Integer.MAX_VALUE / 12) {
+            throw new IllegalArgumentException("Invalid state count: " + maxCount);
+        }
+        Objects.checkFromIndexSize(offset, 12 * maxCount, matrices.length);
+
+        AffineMatrix m = scratch;
+        int read = 0;
+        for (int o = offset; read < maxCount && read(m); read++, o += 12) {
+            matrices[o] = m.m00; matrices[o + 1] = m.m01; matrices[o + 2] = m.m02; matrices[o + 3] = m.m03;
+            matrices[o + 4] = m.m10; matrices[o + 5] = m.m11; matrices[o + 6] = m.m12; matrices[o + 7] = m.m13;
+            matrices[o + 8] = m.m20; matrices[o + 9] = m.m21; matrices[o + 10] = m.m22; matrices[o + 11] = m.m23;
+        }
+        return read == 0 && maxCount > 0 ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double getHalf() {
+        return TransformationFormat.fromHalf(buffer.getShort());
+    }
+
+    private void readTrsFloat(AffineMatrix dest) {
+        double tx = buffer.getFloat(), ty = buffer.getFloat(), tz = buffer.getFloat();
+        double qx = buffer.getFloat(), qy = buffer.getFloat(), qz = buffer.getFloat(), qw = buffer.getFloat();
+        double norm = Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+        dest.setTrs(tx, ty, tz, qx / norm, qy / norm, qz / norm, qw / norm,
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    /**
+     * Дочитывает канал, пока в буфере не окажется {@code bytes} байт.
+     *
+     * @return {@code false}, если поток закончился ровно на границе записи
+     * @throws EOFException если поток оборван посреди записи
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        if (buffer.remaining() < bytes) {
+            throw new EOFException("Truncated record: " + buffer.remaining() + " of " + bytes + " bytes");
+        }
+        return true;
+    }
+}
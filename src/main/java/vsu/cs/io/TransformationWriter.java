@@ -0,0 +1,152 @@
+package vsu.cs.io;
+
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.Transformation;
+import vsu.cs.transformations.TrsDecomposition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Потоковая запись состояний (например, {@code SaveTransformation} или результатов {@code build()}) в канал.
+ * Записи копятся в одном direct-буфере и уходят в канал крупными блоками; на запись объекты не создаются.
+ * Канал закрывается вместе с писателем.
+ */
+public class TransformationWriter implements Closeable {
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final TransformationEncoding encoding;
+    private final ByteBuffer buffer;
+    private final AffineMatrix scratch;
+    private final double[] trs;
+    private long count;
+
+    public TransformationWriter(WritableByteChannel channel, TransformationEncoding encoding) {
+        this(channel, encoding, DEFAULT_BUFFER_BYTES);
+    }
+
+    public TransformationWriter(WritableByteChannel channel, TransformationEncoding encoding, int bufferBytes) {
+        if (channel == null || encoding == null) {
+            throw new IllegalArgumentException("Channel and encoding must not be null");
+        }
+        if (bufferBytes < TransformationFormat.HEADER_BYTES + encoding.getRecordBytes()) {
+            throw new IllegalArgumentException("Buffer is too small: " + bufferBytes);
+        }
+        this.channel = channel;
+        this.encoding = encoding;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+        this.scratch = new AffineMatrix();
+        this.trs = new double[10];
+        TransformationFormat.writeHeader(buffer, encoding);
+    }
+
+    public TransformationEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Количество записанных состояний.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void write(Transformation transformation) throws IOException {
+        scratch.setIdentity();
+        transformation.concatenateTo(scratch);
+        write(scratch);
+    }
+
+    /**
+     * @throws IllegalArgumentException если кодировка TRS, а матрица содержит сдвиг
+     */
+    public void write(AffineMatrix m) throws IOException {
+        if (buffer.remaining() < encoding.getRecordBytes()) {
+            flush();
+        }
+        switch (encoding) {
+            case AFFINE_DOUBLE:
+                buffer.putDouble(m.m00).putDouble(m.m01).putDouble(m.m02).putDouble(m.m03);
+                buffer.putDouble(m.m10).putDouble(m.m11).putDouble(m.m12).putDouble(m.m13);
+                buffer.putDouble(m.m20).putDouble(m.m21).putDouble(m.m22).putDouble(m.m23);
+                break;
+            case AFFINE_FLOAT:
+                buffer.putFloat((float) m.m00).putFloat((float) m.m01).putFloat((float) m.m02).putFloat((float) m.m03);
+                buffer.putFloat((float) m.m10).putFloat((float) m.m11).putFloat((float) m.m12).putFloat((float) m.m13);
+                buffer.putFloat((float) m.m20).putFloat((float) m.m21).putFloat((float) m.m22).putFloat((float) m.m23);
+                break;
+            case AFFINE_HALF:
+                putHalf(m.m00); putHalf(m.m01); putHalf(m.m02); putHalf(m.m03);
+                putHalf(m.m10); putHalf(m.m11); putHalf(m.m12); putHalf(m.m13);
+                putHalf(m.m20); putHalf(m.m21); putHalf(m.m22); putHalf(m.m23);
+                break;
+            case TRS_DOUBLE:
+                decompose(m);
+                for (double value : trs) {
+                    buffer.putDouble(value);
+                }
+                break;
+            case TRS_FLOAT:
+                decompose(m);
+                for (double value : trs) {
+                    buffer.putFloat((float) value);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+        }
+        count++;
+    }
+
+    /**
+     * Пакетная запись: состояние {@code i} — 12 коэффициентов (строки 3x4) начиная с {@code offset + 12 * i},
+     * как в {@code TransformationInterpolator.interpolateAll}.
+     */
+    public void writeAll(double[] matrices, int offset, int count) throws IOException {
+        if (count < 0 || count > Integer.MAX_VALUE / 12) {
+            throw new IllegalArgumentException("Invalid state count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, 12 * count, matrices.length);
+
+        AffineMatrix m = scratch;
+        int end = offset + 12 * count;
+        for (int o = offset; o < end; o += 12) {
+            m.m00 = matrices[o]; m.m01 = matrices[o + 1]; m.m02 = matrices[o + 2]; m.m03 = matrices[o + 3];
+            m.m10 = matrices[o + 4]; m.m11 = matrices[o + 5]; m.m12 = matrices[o + 6]; m.m13 = matrices[o + 7];
+            m.m20 = matrices[o + 8]; m.m21 = matrices[o + 9]; m.m22 = matrices[o + 10]; m.m23 = matrices[o + 11];
+            write(m);
+        }
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putHalf(double value) {
+        buffer.putShort(TransformationFormat.toHalf((float) value));
+    }
+
+    private void decompose(AffineMatrix m) {
+        if (TrsDecomposition.decompose(m, trs, 0)) {
+            throw new IllegalArgumentException("Sheared transformation cannot be stored as TRS");
+        }
+    }
+}
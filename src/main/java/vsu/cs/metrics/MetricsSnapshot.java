@@ -0,0 +1,50 @@
+package vsu.cs.metrics;
+
+/**
+ * Неизменяемый снимок счётчиков {@link TransformationMetrics}.
+ */
+public final class MetricsSnapshot {
+    private final long compositeRecomputes;
+    private final long compositeCacheHits;
+    private final long pointsTransformed;
+    private final long matricesAllocated;
+    private final LatencyHistogram.Snapshot compositionLatency;
+    private final LatencyHistogram.Snapshot bulkApplyLatency;
+
+    MetricsSnapshot(long compositeRecomputes, long compositeCacheHits, long pointsTransformed, long matricesAllocated,
+                    LatencyHistogram.Snapshot compositionLatency, LatencyHistogram.Snapshot bulkApplyLatency) {
+        this.compositeRecomputes = compositeRecomputes;
+        this.compositeCacheHits = compositeCacheHits;
+        this.pointsTransformed = pointsTransformed;
+        this.matricesAllocated = matricesAllocated;
+        this.compositionLatency = compositionLatency;
+        this.bulkApplyLatency = bulkApplyLatency;
+    }
+
+    public long getCompositeRecomputes() {
+        return compositeRecomputes;
+    }
+
+    public long getCompositeCacheHits() {
+        return compositeCacheHits;
+    }
+
+    public long getPointsTransformed() {
+        return pointsTransformed;
+    }
+
+    /**
+     * Созданные библиотекой матрицы: {@code AffineMatrix} и {@code Matrix4d}, возвращённые из {@code getMatrix()}.
+     */
+    public long getMatricesAllocated() {
+        return matricesAllocated;
+    }
+
+    public LatencyHistogram.Snapshot getCompositionLatency() {
+        return compositionLatency;
+    }
+
+    public LatencyHistogram.Snapshot getBulkApplyLatency() {
+        return bulkApplyLatency;
+    }
+}
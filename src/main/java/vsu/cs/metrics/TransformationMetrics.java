@@ -0,0 +1,121 @@
+package vsu.cs.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Инструментирование библиотеки. Включается свойством {@code -Dvsu.cs.metrics=true}; флаг {@link #ENABLED} —
+ * статическая константа, поэтому при выключенных метриках JIT удаляет проверки в точках вызова целиком.
+ * Все точки вызова имеют вид {@code if (TransformationMetrics.ENABLED) { ... }}.
+ * При включённых метриках MBean регистрируется автоматически под именем {@link #OBJECT_NAME}.
+ */
+public final class TransformationMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("vsu.cs.metrics");
+    public static final String OBJECT_NAME = "vsu.cs:type=TransformationMetrics";
+
+    private static final LongAdder COMPOSITE_RECOMPUTES = new LongAdder();
+    private static final LongAdder COMPOSITE_CACHE_HITS = new LongAdder();
+    private static final LongAdder POINTS_TRANSFORMED = new LongAdder();
+    private static final LongAdder MATRICES_ALLOCATED = new LongAdder();
+    private static final LatencyHistogram COMPOSITION_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram BULK_APPLY_LATENCY = new LatencyHistogram();
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private TransformationMetrics() {
+    }
+
+    /**
+     * Пересчёт кэшированной матрицы композиции, начатый в момент {@code startNanos} ({@link System#nanoTime()}).
+     */
+    public static void recordRecompute(long startNanos) {
+        COMPOSITE_RECOMPUTES.increment();
+        COMPOSITION_LATENCY.record(System.nanoTime() - startNanos);
+    }
+
+    public static void recordCacheHit() {
+        COMPOSITE_CACHE_HITS.increment();
+    }
+
+    public static void recordPoints(long count) {
+        POINTS_TRANSFORMED.add(count);
+    }
+
+    /**
+     * Пакетное применение к {@code count} точкам, начатое в момент {@code startNanos}.
+     */
+    public static void recordBulkApply(long count, long startNanos) {
+        POINTS_TRANSFORMED.add(count);
+        BULK_APPLY_LATENCY.record(System.nanoTime() - startNanos);
+    }
+
+    public static void recordMatrixAllocation() {
+        MATRICES_ALLOCATED.increment();
+    }
+
+    public static MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(
+                COMPOSITE_RECOMPUTES.sum(),
+                COMPOSITE_CACHE_HITS.sum(),
+                POINTS_TRANSFORMED.sum(),
+                MATRICES_ALLOCATED.sum(),
+                COMPOSITION_LATENCY.snapshot(),
+                BULK_APPLY_LATENCY.snapshot()
+        );
+    }
+
+    static long compositeRecomputes() {
+        return COMPOSITE_RECOMPUTES.sum();
+    }
+
+    static long compositeCacheHits() {
+        return COMPOSITE_CACHE_HITS.sum();
+    }
+
+    static long pointsTransformed() {
+        return POINTS_TRANSFORMED.sum();
+    }
+
+    static long matricesAllocated() {
+        return MATRICES_ALLOCATED.sum();
+    }
+
+    static LatencyHistogram compositionLatency() {
+        return COMPOSITION_LATENCY;
+    }
+
+    static LatencyHistogram bulkApplyLatency() {
+        return BULK_APPLY_LATENCY;
+    }
+
+    public static void reset() {
+        COMPOSITE_RECOMPUTES.reset();
+        COMPOSITE_CACHE_HITS.reset();
+        POINTS_TRANSFORMED.reset();
+        MATRICES_ALLOCATED.reset();
+        COMPOSITION_LATENCY.reset();
+        BULK_APPLY_LATENCY.reset();
+    }
+
+    /**
+     * Регистрирует MBean в платформенном {@link MBeanServer}; повторная регистрация игнорируется.
+     */
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new TransformationMetricsBean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // уже зарегистрирован
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package vsu.cs.metrics;
+
+/**
+ * Каждый атрибут читает только свой счётчик или свою гистограмму, без полного {@link MetricsSnapshot}.
+ */
+final class TransformationMetricsBean implements TransformationMetricsMXBean {
+
+    @Override
+    public long getCompositeRecomputes() {
+        return TransformationMetrics.compositeRecomputes();
+    }
+
+    @Override
+    public long getCompositeCacheHits() {
+        return TransformationMetrics.compositeCacheHits();
+    }
+
+    @Override
+    public long getPointsTransformed() {
+        return TransformationMetrics.pointsTransformed();
+    }
+
+    @Override
+    public long getMatricesAllocated() {
+        return TransformationMetrics.matricesAllocated();
+    }
+
+    @Override
+    public double getCompositionMeanNanos() {
+        return TransformationMetrics.compositionLatency().getMeanNanos();
+    }
+
+    @Override
+    public long getCompositionP50Nanos() {
+        return TransformationMetrics.compositionLatency().snapshot().getPercentileNanos(0.5);
+    }
+
+    @Override
+    public long getCompositionP99Nanos() {
+        return TransformationMetrics.compositionLatency().snapshot().getPercentileNanos(0.99);
+    }
+
+    @Override
+    public double getBulkApplyMeanNanos() {
+        return TransformationMetrics.bulkApplyLatency().getMeanNanos();
+    }
+
+    @Override
+    public long getBulkApplyP50Nanos() {
+        return TransformationMetrics.bulkApplyLatency().snapshot().getPercentileNanos(0.5);
+    }
+
+    @Override
+    public long getBulkApplyP99Nanos() {
+        return TransformationMetrics.bulkApplyLatency().snapshot().getPercentileNanos(0.99);
+    }
+
+    @Override
+    public void reset() {
+        TransformationMetrics.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package vsu.cs.metrics;
+
+/**
+ * JMX-представление {@link TransformationMetrics}. Задержки — верхние границы корзин гистограммы, в наносекундах.
+ */
+public interface TransformationMetricsMXBean {
+    long getCompositeRecomputes();
+
+    long getCompositeCacheHits();
+
+    long getPointsTransformed();
+
+    long getMatricesAllocated();
+
+    double getCompositionMeanNanos();
+
+    long getCompositionP50Nanos();
+
+    long getCompositionP99Nanos();
+
+    double getBulkApplyMeanNanos();
+
+    long getBulkApplyP50Nanos();
+
+    long getBulkApplyP99Nanos();
+
+    void reset();
+}
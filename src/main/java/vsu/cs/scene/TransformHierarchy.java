@@ -0,0 +1,202 @@
+package vsu.cs.scene;
+
+import vsu.cs.transformations.Transformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Иерархия преобразований (граф сцены). Узлы хранятся по уровням глубины, корни грязных поддеревьев — в отдельных
+ * списках по уровням. Обновление идёт фронтом от этих корней уровень за уровнем, внутри уровня — параллельно
+ * в {@link ForkJoinPool}; чистые поддеревья не обходятся. Локальные преобразования не должны разделяться между узлами,
+ * если они кэшируют состояние (как {@code CompositeTransformation}).
+ */
+public class TransformHierarchy {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 11;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final List<List<TransformNode>> levels;
+    private final List<List<TransformNode>> dirtyRoots;
+    private List<TransformNode> frontier;
+    private List<TransformNode> nextFrontier;
+    private long updateEpoch;
+    private boolean dirty;
+
+    public TransformHierarchy() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public TransformHierarchy(ForkJoinPool pool, int parallelThreshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Invalid parallel threshold: " + parallelThreshold);
+        }
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.levels = new ArrayList<>();
+        this.dirtyRoots = new ArrayList<>();
+        this.frontier = new ArrayList<>();
+        this.nextFrontier = new ArrayList<>();
+        this.updateEpoch = 0;
+        this.dirty = false;
+    }
+
+    public TransformNode createRoot(Transformation local) {
+        return createNode(null, local);
+    }
+
+    public TransformNode createNode(TransformNode parent, Transformation local) {
+        if (local == null) {
+            throw new IllegalArgumentException("Local transformation must not be null");
+        }
+        if (parent != null && !contains(parent)) {
+            throw new IllegalArgumentException("Parent node belongs to another hierarchy");
+        }
+        TransformNode node = new TransformNode(this, parent, local);
+        if (parent != null) {
+            parent.addChild(node);
+        }
+        while (levels.size() <= node.getDepth()) {
+            levels.add(new ArrayList<>());
+            dirtyRoots.add(new ArrayList<>());
+        }
+        List<TransformNode> level = levels.get(node.getDepth());
+        node.setLevelIndex(level.size());
+        level.add(node);
+        addDirtyRoot(node);
+        return node;
+    }
+
+    /**
+     * Удаляет узел вместе с поддеревом.
+     */
+    public void remove(TransformNode node) {
+        if (!contains(node)) {
+            throw new IllegalArgumentException("Node belongs to another hierarchy");
+        }
+        if (node.getParent() != null) {
+            node.getParent().removeChild(node);
+        }
+        detachSubtree(node);
+    }
+
+    /**
+     * Убирает поддерево из списков уровней перестановкой с последним элементом уровня. Отсоединённые узлы,
+     * оставшиеся в списках грязных корней, пропускаются при обновлении.
+     */
+    private void detachSubtree(TransformNode node) {
+        for (TransformNode child : node.getChildren()) {
+            detachSubtree(child);
+        }
+        List<TransformNode> level = levels.get(node.getDepth());
+        int index = node.getLevelIndex();
+        TransformNode last = level.remove(level.size() - 1);
+        if (last != node) {
+            level.set(index, last);
+            last.setLevelIndex(index);
+        }
+        node.detach();
+    }
+
+    public int size() {
+        int size = 0;
+        for (List<TransformNode> level : levels) {
+            size += level.size();
+        }
+        return size;
+    }
+
+    public int getDepth() {
+        return levels.size();
+    }
+
+    /**
+     * Фронт уровня {@code d} — потомки пересчитанных на уровне {@code d - 1} узлов и грязные корни уровня {@code d},
+     * ещё не попавшие в него через предка.
+     */
+    public void updateWorldTransforms() {
+        if (!dirty) {
+            return;
+        }
+        long epoch = ++updateEpoch;
+        for (int depth = 0; depth < levels.size(); depth++) {
+            List<TransformNode> roots = dirtyRoots.get(depth);
+            for (TransformNode root : roots) {
+                if (root.isAttached() && root.enterUpdate(epoch)) {
+                    frontier.add(root);
+                }
+            }
+            roots.clear();
+            if (frontier.isEmpty()) {
+                continue;
+            }
+            if (frontier.size() <= parallelThreshold) {
+                updateRange(frontier, 0, frontier.size());
+            } else {
+                pool.invoke(new LevelTask(frontier, 0, frontier.size(), parallelThreshold));
+            }
+            for (TransformNode node : frontier) {
+                node.addChildrenTo(nextFrontier, epoch);
+            }
+            List<TransformNode> updated = frontier;
+            updated.clear();
+            frontier = nextFrontier;
+            nextFrontier = updated;
+        }
+        dirty = false;
+    }
+
+    void addDirtyRoot(TransformNode node) {
+        dirtyRoots.get(node.getDepth()).add(node);
+        dirty = true;
+    }
+
+    void checkUpdated(TransformNode node) {
+        if (node.isDirty()) {
+            updateWorldTransforms();
+        }
+    }
+
+    private boolean contains(TransformNode node) {
+        return node.getHierarchy() == this && node.isAttached();
+    }
+
+    private static void updateRange(List<TransformNode> level, int from, int to) {
+        for (int i = from; i < to; i++) {
+            level.get(i).updateWorld();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class LevelTask extends RecursiveAction {
+        private final List<TransformNode> level;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        LevelTask(List<TransformNode> level, int from, int to, int threshold) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                updateRange(level, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new LevelTask(level, from, middle, threshold),
+                    new LevelTask(level, middle, to, threshold)
+            );
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package vsu.cs.scene;
+
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.Transformation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Узел иерархии: локальное преобразование относительно родителя и кэш мирового {@code world = parent.world * local}.
+ * Изменение локального преобразования помечает "грязным" только сам узел (корень грязного поддерева): потомки
+ * считаются устаревшими, пока грязен кто-то из предков. Пересчёт выполняет {@link TransformHierarchy#updateWorldTransforms()}.
+ */
+public final class TransformNode {
+    private final TransformHierarchy hierarchy;
+    private final TransformNode parent;
+    private final List<TransformNode> children;
+    private final int depth;
+    private final AffineMatrix world;
+    private Transformation local;
+    private boolean dirty;
+    private boolean attached;
+    private int levelIndex;
+    private long updateEpoch;
+
+    TransformNode(TransformHierarchy hierarchy, TransformNode parent, Transformation local) {
+        this.hierarchy = hierarchy;
+        this.parent = parent;
+        this.children = new ArrayList<>();
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.world = new AffineMatrix();
+        this.local = local;
+        this.dirty = true;
+        this.attached = true;
+    }
+
+    public TransformNode getParent() {
+        return parent;
+    }
+
+    public List<TransformNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Transformation getLocal() {
+        return local;
+    }
+
+    public void setLocal(Transformation local) {
+        this.local = local;
+        invalidate();
+    }
+
+    /**
+     * Помечает узел и всё поддерево для пересчёта. Нужно вызывать, если локальное преобразование
+     * было изменено на месте (например, в {@code CompositeTransformation} добавили операцию).
+     */
+    public void invalidate() {
+        if (!dirty) {
+            dirty = true;
+            hierarchy.addDirtyRoot(this);
+        }
+    }
+
+    /**
+     * Устарела ли мировая матрица: грязен сам узел или кто-то из предков.
+     */
+    public boolean isDirty() {
+        for (TransformNode node = this; node != null; node = node.parent) {
+            if (node.dirty) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void getWorldMatrix(AffineMatrix dest) {
+        hierarchy.checkUpdated(this);
+        dest.set(world);
+    }
+
+    public AffineTransformation getWorldTransformation() {
+        hierarchy.checkUpdated(this);
+        return new AffineTransformation(world);
+    }
+
+    TransformHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    boolean isAttached() {
+        return attached;
+    }
+
+    void detach() {
+        attached = false;
+    }
+
+    /**
+     * Позиция узла в списке его уровня, для удаления перестановкой с последним.
+     */
+    int getLevelIndex() {
+        return levelIndex;
+    }
+
+    void setLevelIndex(int levelIndex) {
+        this.levelIndex = levelIndex;
+    }
+
+    /**
+     * Помечает узел попавшим в проход обновления {@code epoch}; {@code false}, если он уже в нём.
+     */
+    boolean enterUpdate(long epoch) {
+        if (updateEpoch == epoch) {
+            return false;
+        }
+        updateEpoch = epoch;
+        return true;
+    }
+
+    void addChildrenTo(List<TransformNode> dest, long epoch) {
+        for (TransformNode child : children) {
+            child.updateEpoch = epoch;
+            dest.add(child);
+        }
+    }
+
+    void addChild(TransformNode child) {
+        children.add(child);
+    }
+
+    void removeChild(TransformNode child) {
+        children.remove(child);
+    }
+
+    /**
+     * Пересчитывает мировую матрицу; вызывается для корня грязного поддерева и всех его потомков
+     * после того, как пересчитан родитель.
+     */
+    void updateWorld() {
+        world.setIdentity();
+        local.concatenateTo(world);
+        if (parent != null) {
+            world.preMultiply(parent.world);
+        }
+        dirty = false;
+    }
+}
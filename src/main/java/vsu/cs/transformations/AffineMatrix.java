@@ -0,0 +1,385 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+/**
+ * Изменяемая аффинная матрица 3x4 (нижняя строка 0, 0, 0, 1 подразумевается).
+ * Внутреннее представление для композиции: все методы {@code pre*} вычисляют {@code this = A * this},
+ * то есть применяют A после уже накопленного преобразования, и учитывают структуру A:
+ * перенос — 3 сложения, масштаб — 12 умножений, поворот вокруг оси — только две строки.
+ */
+public final class AffineMatrix {
+    public double m00, m01, m02, m03;
+    public double m10, m11, m12, m13;
+    public double m20, m21, m22, m23;
+
+    public AffineMatrix() {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordMatrixAllocation();
+        }
+        setIdentity();
+    }
+
+    public AffineMatrix(AffineMatrix matrix) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordMatrixAllocation();
+        }
+        set(matrix);
+    }
+
+    public AffineMatrix(Matrix4d matrix) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordMatrixAllocation();
+        }
+        set(matrix);
+    }
+
+    public void setIdentity() {
+        m00 = 1; m01 = 0; m02 = 0; m03 = 0;
+        m10 = 0; m11 = 1; m12 = 0; m13 = 0;
+        m20 = 0; m21 = 0; m22 = 1; m23 = 0;
+    }
+
+    public void set(AffineMatrix m) {
+        m00 = m.m00; m01 = m.m01; m02 = m.m02; m03 = m.m03;
+        m10 = m.m10; m11 = m.m11; m12 = m.m12; m13 = m.m13;
+        m20 = m.m20; m21 = m.m21; m22 = m.m22; m23 = m.m23;
+    }
+
+    public void set(Matrix4d m) {
+        m00 = m.m00; m01 = m.m01; m02 = m.m02; m03 = m.m03;
+        m10 = m.m10; m11 = m.m11; m12 = m.m12; m13 = m.m13;
+        m20 = m.m20; m21 = m.m21; m22 = m.m22; m23 = m.m23;
+    }
+
+    public void get(Matrix4d dest) {
+        set(dest, m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23);
+    }
+
+    /**
+     * Записывает аффинную матрицу 3x4 в {@code dest}, нижняя строка — (0, 0, 0, 1).
+     */
+    static void set(Matrix4d dest,
+                    double m00, double m01, double m02, double m03,
+                    double m10, double m11, double m12, double m13,
+                    double m20, double m21, double m22, double m23) {
+        dest.m00 = m00; dest.m01 = m01; dest.m02 = m02; dest.m03 = m03;
+        dest.m10 = m10; dest.m11 = m11; dest.m12 = m12; dest.m13 = m13;
+        dest.m20 = m20; dest.m21 = m21; dest.m22 = m22; dest.m23 = m23;
+        dest.m30 = 0; dest.m31 = 0; dest.m32 = 0; dest.m33 = 1;
+    }
+
+    public Matrix4d toMatrix4d() {
+        Matrix4d matrix = newMatrix4d();
+        get(matrix);
+        return matrix;
+    }
+
+    /**
+     * Новая {@link Matrix4d} для {@code getMatrix()}, учтённая в счётчике созданных матриц.
+     */
+    static Matrix4d newMatrix4d() {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordMatrixAllocation();
+        }
+        return new Matrix4d();
+    }
+
+    /**
+     * Устанавливает {@code T * R * S}: масштаб, затем поворот кватернионом (единичным), затем перенос.
+     */
+    public void setTrs(double tx, double ty, double tz,
+                       double qx, double qy, double qz, double qw,
+                       double sx, double sy, double sz) {
+        m00 = (1.0 - 2.0 * qy * qy - 2.0 * qz * qz) * sx;
+        m01 = 2.0 * (qx * qy - qw * qz) * sy;
+        m02 = 2.0 * (qx * qz + qw * qy) * sz;
+        m03 = tx;
+        m10 = 2.0 * (qx * qy + qw * qz) * sx;
+        m11 = (1.0 - 2.0 * qx * qx - 2.0 * qz * qz) * sy;
+        m12 = 2.0 * (qy * qz - qw * qx) * sz;
+        m13 = ty;
+        m20 = 2.0 * (qx * qz - qw * qy) * sx;
+        m21 = 2.0 * (qy * qz + qw * qx) * sy;
+        m22 = (1.0 - 2.0 * qx * qx - 2.0 * qy * qy) * sz;
+        m23 = tz;
+    }
+
+    public void preTranslate(double tx, double ty, double tz) {
+        m03 += tx;
+        m13 += ty;
+        m23 += tz;
+    }
+
+    public void preScale(double sx, double sy, double sz) {
+        m00 *= sx; m01 *= sx; m02 *= sx; m03 *= sx;
+        m10 *= sy; m11 *= sy; m12 *= sy; m13 *= sy;
+        m20 *= sz; m21 *= sz; m22 *= sz; m23 *= sz;
+    }
+
+    /**
+     * Поворот в соглашении {@link RotateTransformation}: для оси X это матрица
+     * [1 0 0; 0 cos sin; 0 -sin cos], для Y и Z аналогично.
+     */
+    public void preRotate(Axis axis, double cos, double sin) {
+        double a0, a1, a2, a3, b0, b1, b2, b3;
+        switch (axis) {
+            case X:
+                a0 = m10; a1 = m11; a2 = m12; a3 = m13;
+                b0 = m20; b1 = m21; b2 = m22; b3 = m23;
+                m10 = cos * a0 + sin * b0; m11 = cos * a1 + sin * b1; m12 = cos * a2 + sin * b2; m13 = cos * a3 + sin * b3;
+                m20 = cos * b0 - sin * a0; m21 = cos * b1 - sin * a1; m22 = cos * b2 - sin * a2; m23 = cos * b3 - sin * a3;
+                break;
+            case Y:
+                a0 = m00; a1 = m01; a2 = m02; a3 = m03;
+                b0 = m20; b1 = m21; b2 = m22; b3 = m23;
+                m00 = cos * a0 + sin * b0; m01 = cos * a1 + sin * b1; m02 = cos * a2 + sin * b2; m03 = cos * a3 + sin * b3;
+                m20 = cos * b0 - sin * a0; m21 = cos * b1 - sin * a1; m22 = cos * b2 - sin * a2; m23 = cos * b3 - sin * a3;
+                break;
+            case Z:
+                a0 = m00; a1 = m01; a2 = m02; a3 = m03;
+                b0 = m10; b1 = m11; b2 = m12; b3 = m13;
+                m00 = cos * a0 + sin * b0; m01 = cos * a1 + sin * b1; m02 = cos * a2 + sin * b2; m03 = cos * a3 + sin * b3;
+                m10 = cos * b0 - sin * a0; m11 = cos * b1 - sin * a1; m12 = cos * b2 - sin * a2; m13 = cos * b3 - sin * a3;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown axis:" + axis);
+        }
+    }
+
+    /**
+     * this = L * this, где L — линейная часть 3x3 без переноса.
+     */
+    public void preMultiplyLinear(double l00, double l01, double l02,
+                                  double l10, double l11, double l12,
+                                  double l20, double l21, double l22) {
+        double b00 = m00, b01 = m01, b02 = m02, b03 = m03;
+        double b10 = m10, b11 = m11, b12 = m12, b13 = m13;
+        double b20 = m20, b21 = m21, b22 = m22, b23 = m23;
+
+        m00 = l00 * b00 + l01 * b10 + l02 * b20;
+        m01 = l00 * b01 + l01 * b11 + l02 * b21;
+        m02 = l00 * b02 + l01 * b12 + l02 * b22;
+        m03 = l00 * b03 + l01 * b13 + l02 * b23;
+
+        m10 = l10 * b00 + l11 * b10 + l12 * b20;
+        m11 = l10 * b01 + l11 * b11 + l12 * b21;
+        m12 = l10 * b02 + l11 * b12 + l12 * b22;
+        m13 = l10 * b03 + l11 * b13 + l12 * b23;
+
+        m20 = l20 * b00 + l21 * b10 + l22 * b20;
+        m21 = l20 * b01 + l21 * b11 + l22 * b21;
+        m22 = l20 * b02 + l21 * b12 + l22 * b22;
+        m23 = l20 * b03 + l21 * b13 + l22 * b23;
+    }
+
+    public void preMultiply(double a00, double a01, double a02, double a03,
+                            double a10, double a11, double a12, double a13,
+                            double a20, double a21, double a22, double a23) {
+        preMultiplyLinear(a00, a01, a02, a10, a11, a12, a20, a21, a22);
+        m03 += a03;
+        m13 += a13;
+        m23 += a23;
+    }
+
+    public void preMultiply(AffineMatrix a) {
+        preMultiply(
+                a.m00, a.m01, a.m02, a.m03,
+                a.m10, a.m11, a.m12, a.m13,
+                a.m20, a.m21, a.m22, a.m23
+        );
+    }
+
+    public void preMultiply(Matrix4d a) {
+        preMultiply(
+                a.m00, a.m01, a.m02, a.m03,
+                a.m10, a.m11, a.m12, a.m13,
+                a.m20, a.m21, a.m22, a.m23
+        );
+    }
+
+    public void transform(Point3d point, Point3d result) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = point.x, y = point.y, z = point.z;
+        result.x = m00 * x + m01 * y + m02 * z + m03;
+        result.y = m10 * x + m11 * y + m12 * z + m13;
+        result.z = m20 * x + m21 * y + m22 * z + m23;
+    }
+
+    public void transform(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        BulkBounds.checkPoints(xyzIn, xyzOut, offset, count);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+        double m00 = this.m00, m01 = this.m01, m02 = this.m02, m03 = this.m03;
+        double m10 = this.m10, m11 = this.m11, m12 = this.m12, m13 = this.m13;
+        double m20 = this.m20, m21 = this.m21, m22 = this.m22, m23 = this.m23;
+
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            double x = xyzIn[i];
+            double y = xyzIn[i + 1];
+            double z = xyzIn[i + 2];
+            xyzOut[i] = m00 * x + m01 * y + m02 * z + m03;
+            xyzOut[i + 1] = m10 * x + m11 * y + m12 * z + m13;
+            xyzOut[i + 2] = m20 * x + m21 * y + m22 * z + m23;
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+
+    public double determinant() {
+        return m00 * (m11 * m22 - m12 * m21)
+                - m01 * (m10 * m22 - m12 * m20)
+                + m02 * (m10 * m21 - m11 * m20);
+    }
+
+    /**
+     * Обращение общей аффинной матрицы через присоединённую 3x3 (без обращения 4x4).
+     */
+    public void invert() {
+        double det = determinant();
+        if (det == 0 || !Double.isFinite(det)) {
+            throw new IllegalStateException("Transformation is not invertible: determinant is " + det);
+        }
+        double inv = 1.0 / det;
+        double i00 = (m11 * m22 - m12 * m21) * inv;
+        double i01 = (m02 * m21 - m01 * m22) * inv;
+        double i02 = (m01 * m12 - m02 * m11) * inv;
+        double i10 = (m12 * m20 - m10 * m22) * inv;
+        double i11 = (m00 * m22 - m02 * m20) * inv;
+        double i12 = (m02 * m10 - m00 * m12) * inv;
+        double i20 = (m10 * m21 - m11 * m20) * inv;
+        double i21 = (m01 * m20 - m00 * m21) * inv;
+        double i22 = (m00 * m11 - m01 * m10) * inv;
+        double tx = m03, ty = m13, tz = m23;
+
+        m00 = i00; m01 = i01; m02 = i02; m03 = -(i00 * tx + i01 * ty + i02 * tz);
+        m10 = i10; m11 = i11; m12 = i12; m13 = -(i10 * tx + i11 * ty + i12 * tz);
+        m20 = i20; m21 = i21; m22 = i22; m23 = -(i20 * tx + i21 * ty + i22 * tz);
+    }
+
+    /**
+     * Направления: только линейная часть, перенос не применяется.
+     */
+    public void transformVectors(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        BulkBounds.checkPoints(xyzIn, xyzOut, offset, count);
+        double m00 = this.m00, m01 = this.m01, m02 = this.m02;
+        double m10 = this.m10, m11 = this.m11, m12 = this.m12;
+        double m20 = this.m20, m21 = this.m21, m22 = this.m22;
+
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            double x = xyzIn[i];
+            double y = xyzIn[i + 1];
+            double z = xyzIn[i + 2];
+            xyzOut[i] = m00 * x + m01 * y + m02 * z;
+            xyzOut[i + 1] = m10 * x + m11 * y + m12 * z;
+            xyzOut[i + 2] = m20 * x + m21 * y + m22 * z;
+        }
+    }
+
+    /**
+     * Умножение на транспонированную линейную часть. Вызванное у обратной матрицы,
+     * преобразует нормали матрицей (M^-1)^T. Результат не нормируется.
+     */
+    public void transformTransposed(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        BulkBounds.checkPoints(xyzIn, xyzOut, offset, count);
+        double m00 = this.m00, m01 = this.m01, m02 = this.m02;
+        double m10 = this.m10, m11 = this.m11, m12 = this.m12;
+        double m20 = this.m20, m21 = this.m21, m22 = this.m22;
+
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            double x = xyzIn[i];
+            double y = xyzIn[i + 1];
+            double z = xyzIn[i + 2];
+            xyzOut[i] = m00 * x + m10 * y + m20 * z;
+            xyzOut[i + 1] = m01 * x + m11 * y + m21 * z;
+            xyzOut[i + 2] = m02 * x + m12 * y + m22 * z;
+        }
+    }
+
+    /**
+     * Наибольший коэффициент растяжения линейной части (спектральная норма): корень из наибольшего
+     * собственного значения L^T L, вычисленного в замкнутой форме.
+     */
+    public double maxScale() {
+        double a00 = m00 * m00 + m10 * m10 + m20 * m20;
+        double a11 = m01 * m01 + m11 * m11 + m21 * m21;
+        double a22 = m02 * m02 + m12 * m12 + m22 * m22;
+        double a01 = m00 * m01 + m10 * m11 + m20 * m21;
+        double a02 = m00 * m02 + m10 * m12 + m20 * m22;
+        double a12 = m01 * m02 + m11 * m12 + m21 * m22;
+
+        double p1 = a01 * a01 + a02 * a02 + a12 * a12;
+        if (p1 == 0) {
+            return Math.sqrt(Math.max(a00, Math.max(a11, a22)));
+        }
+        double q = (a00 + a11 + a22) / 3;
+        double d0 = a00 - q, d1 = a11 - q, d2 = a22 - q;
+        double p = Math.sqrt((d0 * d0 + d1 * d1 + d2 * d2 + 2 * p1) / 6);
+        double det = d0 * (d1 * d2 - a12 * a12) - a01 * (a01 * d2 - a12 * a02) + a02 * (a01 * a12 - d1 * a02);
+        double r = det / (2 * p * p * p);
+        double phi = r <= -1 ? Math.PI / 3 : r >= 1 ? 0 : Math.acos(r) / 3;
+        return Math.sqrt(q + 2 * p * Math.cos(phi));
+    }
+
+    /**
+     * Осевые ограничивающие параллелепипеды по методу Арво. Каждый бокс — 6 чисел
+     * minX, minY, minZ, maxX, maxY, maxZ, начиная с индекса {@code offset}.
+     */
+    public void transformBoxes(double[] boxesIn, double[] boxesOut, int offset, int count) {
+        BulkBounds.checkPacked(boxesIn, boxesOut, offset, count, 6);
+        int end = offset + 6 * count;
+        for (int i = offset; i < end; i += 6) {
+            double minX = boxesIn[i], minY = boxesIn[i + 1], minZ = boxesIn[i + 2];
+            double maxX = boxesIn[i + 3], maxY = boxesIn[i + 4], maxZ = boxesIn[i + 5];
+
+            double lo0 = m03, hi0 = m03, lo1 = m13, hi1 = m13, lo2 = m23, hi2 = m23;
+            double a, b;
+            a = m00 * minX; b = m00 * maxX; lo0 += Math.min(a, b); hi0 += Math.max(a, b);
+            a = m01 * minY; b = m01 * maxY; lo0 += Math.min(a, b); hi0 += Math.max(a, b);
+            a = m02 * minZ; b = m02 * maxZ; lo0 += Math.min(a, b); hi0 += Math.max(a, b);
+            a = m10 * minX; b = m10 * maxX; lo1 += Math.min(a, b); hi1 += Math.max(a, b);
+            a = m11 * minY; b = m11 * maxY; lo1 += Math.min(a, b); hi1 += Math.max(a, b);
+            a = m12 * minZ; b = m12 * maxZ; lo1 += Math.min(a, b); hi1 += Math.max(a, b);
+            a = m20 * minX; b = m20 * maxX; lo2 += Math.min(a, b); hi2 += Math.max(a, b);
+            a = m21 * minY; b = m21 * maxY; lo2 += Math.min(a, b); hi2 += Math.max(a, b);
+            a = m22 * minZ; b = m22 * maxZ; lo2 += Math.min(a, b); hi2 += Math.max(a, b);
+
+            boxesOut[i] = lo0;
+            boxesOut[i + 1] = lo1;
+            boxesOut[i + 2] = lo2;
+            boxesOut[i + 3] = hi0;
+            boxesOut[i + 4] = hi1;
+            boxesOut[i + 5] = hi2;
+        }
+    }
+
+    /**
+     * Ограничивающие сферы: 4 числа centerX, centerY, centerZ, radius. Центр преобразуется как точка,
+     * радиус умножается на {@code maxScale}.
+     */
+    public void transformSpheres(double[] spheresIn, double[] spheresOut, int offset, int count, double maxScale) {
+        BulkBounds.checkPacked(spheresIn, spheresOut, offset, count, 4);
+        int end = offset + 4 * count;
+        for (int i = offset; i < end; i += 4) {
+            double x = spheresIn[i];
+            double y = spheresIn[i + 1];
+            double z = spheresIn[i + 2];
+            spheresOut[i] = m00 * x + m01 * y + m02 * z + m03;
+            spheresOut[i + 1] = m10 * x + m11 * y + m12 * z + m13;
+            spheresOut[i + 2] = m20 * x + m21 * y + m22 * z + m23;
+            spheresOut[i + 3] = spheresIn[i + 3] * maxScale;
+        }
+    }
+
+    public void transformSpheres(double[] spheresIn, double[] spheresOut, int offset, int count) {
+        transformSpheres(spheresIn, spheresOut, offset, count, maxScale());
+    }
+}
@@ -0,0 +1,151 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+/**
+ * Неизменяемое аффинное преобразование: 12 коэффициентов верхних трёх строк матрицы,
+ * нижняя строка всегда 0, 0, 0, 1. Все поля final, поэтому объект можно свободно
+ * передавать между потоками без синхронизации.
+ */
+public final class AffineTransformation implements Transformation {
+    public static final AffineTransformation IDENTITY = new AffineTransformation(
+            1, 0, 0, 0,
+            0, 1, 0, 0,
+            0, 0, 1, 0
+    );
+
+    private final double m00, m01, m02, m03;
+    private final double m10, m11, m12, m13;
+    private final double m20, m21, m22, m23;
+
+    public AffineTransformation(double m00, double m01, double m02, double m03,
+                                double m10, double m11, double m12, double m13,
+                                double m20, double m21, double m22, double m23) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m03 = m03;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.m13 = m13;
+        this.m20 = m20;
+        this.m21 = m21;
+        this.m22 = m22;
+        this.m23 = m23;
+    }
+
+    public AffineTransformation(Matrix4d matrix) {
+        this(
+                matrix.m00, matrix.m01, matrix.m02, matrix.m03,
+                matrix.m10, matrix.m11, matrix.m12, matrix.m13,
+                matrix.m20, matrix.m21, matrix.m22, matrix.m23
+        );
+    }
+
+    public AffineTransformation(AffineMatrix matrix) {
+        this(
+                matrix.m00, matrix.m01, matrix.m02, matrix.m03,
+                matrix.m10, matrix.m11, matrix.m12, matrix.m13,
+                matrix.m20, matrix.m21, matrix.m22, matrix.m23
+        );
+    }
+
+    public double getElement(int row, int column) {
+        switch (row * 4 + column) {
+            case 0: return m00;
+            case 1: return m01;
+            case 2: return m02;
+            case 3: return m03;
+            case 4: return m10;
+            case 5: return m11;
+            case 6: return m12;
+            case 7: return m13;
+            case 8: return m20;
+            case 9: return m21;
+            case 10: return m22;
+            case 11: return m23;
+            case 12: case 13: case 14: return 0;
+            case 15: return 1;
+            default:
+                throw new IndexOutOfBoundsException("Invalid matrix element: " + row + ", " + column);
+        }
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        AffineMatrix.set(dest,
+                m00, m01, m02, m03,
+                m10, m11, m12, m13,
+                m20, m21, m22, m23
+        );
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
+        out.set(
+                m00 * x + m01 * y + m02 * z + m03,
+                m10 * x + m11 * y + m12 * z + m13,
+                m20 * x + m21 * y + m22 * z + m23
+        );
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiply(
+                m00, m01, m02, m03,
+                m10, m11, m12, m13,
+                m20, m21, m22, m23
+        );
+    }
+
+    @Override
+    public AffineTransformation compile() {
+        return this;
+    }
+
+    @Override
+    public Point3d apply(Point3d point) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = point.x, y = point.y, z = point.z;
+        return new Point3d(
+                m00 * x + m01 * y + m02 * z + m03,
+                m10 * x + m11 * y + m12 * z + m13,
+                m20 * x + m21 * y + m22 * z + m23
+        );
+    }
+
+    @Override
+    public void applyAll(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        BulkBounds.checkPoints(xyzIn, xyzOut, offset, count);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            double x = xyzIn[i];
+            double y = xyzIn[i + 1];
+            double z = xyzIn[i + 2];
+            xyzOut[i] = m00 * x + m01 * y + m02 * z + m03;
+            xyzOut[i + 1] = m10 * x + m11 * y + m12 * z + m13;
+            xyzOut[i + 2] = m20 * x + m21 * y + m22 * z + m23;
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+}
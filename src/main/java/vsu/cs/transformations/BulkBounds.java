@@ -0,0 +1,33 @@
+package vsu.cs.transformations;
+
+import java.util.Objects;
+
+/**
+ * Проверки границ для пакетных методов над упакованными массивами.
+ */
+final class BulkBounds {
+    private BulkBounds() {
+    }
+
+    /**
+     * Точки по три координаты: {@code [offset, offset + 3 * count)} в обоих массивах.
+     */
+    static void checkPoints(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        if (count < 0 || count > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, 3 * count, xyzIn.length);
+        Objects.checkFromIndexSize(offset, 3 * count, xyzOut.length);
+    }
+
+    /**
+     * Записи по {@code size} чисел (коробки, сферы): {@code [offset, offset + size * count)} в обоих массивах.
+     */
+    static void checkPacked(double[] in, double[] out, int offset, int count, int size) {
+        if (count < 0 || count > Integer.MAX_VALUE / size) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, size * count, in.length);
+        Objects.checkFromIndexSize(offset, size * count, out.length);
+    }
+}
@@ -0,0 +1,36 @@
+package vsu.cs.transformations;
+
+/**
+ * Порядок применения поворотов Эйлера: {@code XYZ} — сначала вокруг X, затем Y, затем Z,
+ * как {@code rotateX(a).rotateY(b).rotateZ(c)}.
+ */
+public enum EulerOrder {
+    XYZ(Axis.X, Axis.Y, Axis.Z),
+    XZY(Axis.X, Axis.Z, Axis.Y),
+    YXZ(Axis.Y, Axis.X, Axis.Z),
+    YZX(Axis.Y, Axis.Z, Axis.X),
+    ZXY(Axis.Z, Axis.X, Axis.Y),
+    ZYX(Axis.Z, Axis.Y, Axis.X);
+
+    private final Axis first;
+    private final Axis second;
+    private final Axis third;
+
+    EulerOrder(Axis first, Axis second, Axis third) {
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    public Axis getFirst() {
+        return first;
+    }
+
+    public Axis getSecond() {
+        return second;
+    }
+
+    public Axis getThird() {
+        return third;
+    }
+}
@@ -0,0 +1,141 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Matrix4f;
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
+/**
+ * Неизменяемое аффинное преобразование одинарной точности для вершин во float.
+ * Композиция выполняется в double, во float сужаются только итоговые 12 коэффициентов.
+ */
+public final class FloatAffineTransformation implements Transformation {
+    private final float m00, m01, m02, m03;
+    private final float m10, m11, m12, m13;
+    private final float m20, m21, m22, m23;
+
+    public FloatAffineTransformation(AffineMatrix matrix) {
+        this.m00 = (float) matrix.m00;
+        this.m01 = (float) matrix.m01;
+        this.m02 = (float) matrix.m02;
+        this.m03 = (float) matrix.m03;
+        this.m10 = (float) matrix.m10;
+        this.m11 = (float) matrix.m11;
+        this.m12 = (float) matrix.m12;
+        this.m13 = (float) matrix.m13;
+        this.m20 = (float) matrix.m20;
+        this.m21 = (float) matrix.m21;
+        this.m22 = (float) matrix.m22;
+        this.m23 = (float) matrix.m23;
+    }
+
+    public Matrix4f getMatrix4f() {
+        return new Matrix4f(
+                m00, m01, m02, m03,
+                m10, m11, m12, m13,
+                m20, m21, m22, m23,
+                0, 0, 0, 1
+        );
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        AffineMatrix.set(dest,
+                m00, m01, m02, m03,
+                m10, m11, m12, m13,
+                m20, m21, m22, m23
+        );
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
+        out.set(
+                m00 * x + m01 * y + m02 * z + m03,
+                m10 * x + m11 * y + m12 * z + m13,
+                m20 * x + m21 * y + m22 * z + m23
+        );
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiply(
+                m00, m01, m02, m03,
+                m10, m11, m12, m13,
+                m20, m21, m22, m23
+        );
+    }
+
+    @Override
+    public FloatAffineTransformation compileFloat() {
+        return this;
+    }
+
+    public void applyAll(float[] xyzIn, float[] xyzOut, int offset, int count) {
+        if (count < 0 || count > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, 3 * count, xyzIn.length);
+        Objects.checkFromIndexSize(offset, 3 * count, xyzOut.length);
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            float x = xyzIn[i];
+            float y = xyzIn[i + 1];
+            float z = xyzIn[i + 2];
+            xyzOut[i] = m00 * x + m01 * y + m02 * z + m03;
+            xyzOut[i + 1] = m10 * x + m11 * y + m12 * z + m13;
+            xyzOut[i + 2] = m20 * x + m21 * y + m22 * z + m23;
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+
+    public void applyAll(float[] xyz, int offset, int count) {
+        applyAll(xyz, xyz, offset, count);
+    }
+
+    /**
+     * Абсолютная индексация: позиции буферов не меняются. Индексы {@code offset} — во float'ах, не в байтах.
+     */
+    public void applyAll(FloatBuffer xyzIn, FloatBuffer xyzOut, int offset, int count) {
+        if (count < 0 || count > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        Objects.checkFromIndexSize(offset, 3 * count, xyzIn.limit());
+        Objects.checkFromIndexSize(offset, 3 * count, xyzOut.limit());
+        long start = TransformationMetrics.ENABLED ? System.nanoTime() : 0;
+
+        int end = offset + 3 * count;
+        for (int i = offset; i < end; i += 3) {
+            float x = xyzIn.get(i);
+            float y = xyzIn.get(i + 1);
+            float z = xyzIn.get(i + 2);
+            xyzOut.put(i, m00 * x + m01 * y + m02 * z + m03);
+            xyzOut.put(i + 1, m10 * x + m11 * y + m12 * z + m13);
+            xyzOut.put(i + 2, m20 * x + m21 * y + m22 * z + m23);
+        }
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordBulkApply(count, start);
+        }
+    }
+
+    public void applyAll(FloatBuffer xyz, int offset, int count) {
+        applyAll(xyz, xyz, offset, count);
+    }
+}
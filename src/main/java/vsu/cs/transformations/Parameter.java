@@ -0,0 +1,33 @@
+package vsu.cs.transformations;
+
+/**
+ * Изменяемый параметр (угол, масштаб или смещение), к которому привязываются параметрические преобразования.
+ * Каждое изменение значения увеличивает версию, по которой композиция понимает, какие операции пересчитывать.
+ */
+public final class Parameter {
+    private double value;
+    private long version;
+
+    public Parameter() {
+        this(0);
+    }
+
+    public Parameter(double value) {
+        this.value = value;
+    }
+
+    public double get() {
+        return value;
+    }
+
+    public void set(double value) {
+        if (Double.doubleToLongBits(this.value) != Double.doubleToLongBits(value)) {
+            this.value = value;
+            this.version++;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
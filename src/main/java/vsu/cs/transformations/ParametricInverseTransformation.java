@@ -0,0 +1,60 @@
+package vsu.cs.transformations;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+/**
+ * Обратное к параметрическому преобразованию, привязанное к тем же параметрам.
+ * Матрица для {@link #apply(Point3d, Point3d)} и {@link #getMatrix(Matrix4d)} собирается во внутреннем буфере,
+ * поэтому экземпляр, как и вычисляющие свои коэффициенты параметрические операции, не потокобезопасен.
+ */
+final class ParametricInverseTransformation implements ParametricTransformation {
+    private final ParametricTransformation transformation;
+    private final AffineMatrix scratch;
+
+    ParametricInverseTransformation(ParametricTransformation transformation) {
+        this.transformation = transformation;
+        this.scratch = new AffineMatrix();
+    }
+
+    @Override
+    public long getVersion() {
+        return transformation.getVersion();
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        transformation.concatenateInverseTo(target);
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        transformation.concatenateTo(target);
+    }
+
+    @Override
+    public ParametricTransformation inverse() {
+        return transformation;
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        return toAffineMatrix().toMatrix4d();
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        evaluate().get(dest);
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        evaluate().transform(in, out);
+    }
+
+    private AffineMatrix evaluate() {
+        scratch.setIdentity();
+        transformation.concatenateInverseTo(scratch);
+        return scratch;
+    }
+}
@@ -0,0 +1,85 @@
+package vsu.cs.transformations;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+public class ParametricRotateTransformation implements ParametricTransformation {
+    private final Axis axis;
+    private final Parameter angle;
+    private long evaluatedVersion;
+    private double cos;
+    private double sin;
+
+    public ParametricRotateTransformation(Axis axis, Parameter angle) {
+        if (axis == null) {
+            throw new IllegalArgumentException("Unknown axis:" + axis);
+        }
+        this.axis = axis;
+        this.angle = angle;
+        evaluate();
+    }
+
+    public Axis getAxis() {
+        return axis;
+    }
+
+    public Parameter getAngle() {
+        return angle;
+    }
+
+    @Override
+    public long getVersion() {
+        return angle.getVersion();
+    }
+
+    private void evaluate() {
+        double value = angle.get();
+        this.cos = Math.cos(value);
+        this.sin = Math.sin(value);
+        this.evaluatedVersion = angle.getVersion();
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        if (evaluatedVersion != angle.getVersion()) {
+            evaluate();
+        }
+        target.preRotate(axis, cos, sin);
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        if (evaluatedVersion != angle.getVersion()) {
+            evaluate();
+        }
+        target.preRotate(axis, cos, -sin);
+    }
+
+    @Override
+    public ParametricTransformation inverse() {
+        return new ParametricInverseTransformation(this);
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        if (evaluatedVersion != angle.getVersion()) {
+            evaluate();
+        }
+        RotateTransformation.getMatrix(axis, cos, sin, dest);
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (evaluatedVersion != angle.getVersion()) {
+            evaluate();
+        }
+        RotateTransformation.apply(axis, cos, sin, in, out);
+    }
+}
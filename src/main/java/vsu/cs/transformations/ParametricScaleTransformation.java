@@ -0,0 +1,81 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+public class ParametricScaleTransformation implements ParametricTransformation {
+    private final Parameter sx, sy, sz;
+
+    public ParametricScaleTransformation(Parameter sx, Parameter sy, Parameter sz) {
+        this.sx = sx;
+        this.sy = sy;
+        this.sz = sz;
+    }
+
+    public ParametricScaleTransformation(Parameter uniformScale) {
+        this(uniformScale, uniformScale, uniformScale);
+    }
+
+    public static ParametricScaleTransformation along(Axis axis, Parameter scale) {
+        Parameter one = new Parameter(1);
+        switch (axis) {
+            case X:
+                return new ParametricScaleTransformation(scale, one, one);
+            case Y:
+                return new ParametricScaleTransformation(one, scale, one);
+            case Z:
+                return new ParametricScaleTransformation(one, one, scale);
+            default:
+                throw new IllegalArgumentException("Unknown axis:" + axis);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return sx.getVersion() + sy.getVersion() + sz.getVersion();
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preScale(sx.get(), sy.get(), sz.get());
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        double x = sx.get(), y = sy.get(), z = sz.get();
+        if (x == 0 || y == 0 || z == 0) {
+            throw new IllegalStateException("Scale transformation is not invertible: " + x + ", " + y + ", " + z);
+        }
+        target.preScale(1 / x, 1 / y, 1 / z);
+    }
+
+    @Override
+    public ParametricTransformation inverse() {
+        return new ParametricInverseTransformation(this);
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        dest.setIdentity();
+        dest.m00 = sx.get();
+        dest.m11 = sy.get();
+        dest.m22 = sz.get();
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        out.set(in.x * sx.get(), in.y * sy.get(), in.z * sz.get());
+    }
+}
@@ -0,0 +1,9 @@
+package vsu.cs.transformations;
+
+/**
+ * Преобразование, зависящее от {@link Parameter}. Версия растёт при любом изменении параметров,
+ * поэтому композиции достаточно сравнить её с запомненной, чтобы решить, нужен ли пересчёт.
+ */
+public interface ParametricTransformation extends Transformation {
+    long getVersion();
+}
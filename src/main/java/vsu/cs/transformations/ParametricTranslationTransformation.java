@@ -0,0 +1,73 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+
+public class ParametricTranslationTransformation implements ParametricTransformation {
+    private final Parameter tx, ty, tz;
+
+    public ParametricTranslationTransformation(Parameter tx, Parameter ty, Parameter tz) {
+        this.tx = tx;
+        this.ty = ty;
+        this.tz = tz;
+    }
+
+    public static ParametricTranslationTransformation along(Axis axis, Parameter offset) {
+        Parameter zero = new Parameter(0);
+        switch (axis) {
+            case X:
+                return new ParametricTranslationTransformation(offset, zero, zero);
+            case Y:
+                return new ParametricTranslationTransformation(zero, offset, zero);
+            case Z:
+                return new ParametricTranslationTransformation(zero, zero, offset);
+            default:
+                throw new IllegalArgumentException("Unknown axis:" + axis);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return tx.getVersion() + ty.getVersion() + tz.getVersion();
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preTranslate(tx.get(), ty.get(), tz.get());
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        target.preTranslate(-tx.get(), -ty.get(), -tz.get());
+    }
+
+    @Override
+    public ParametricTransformation inverse() {
+        return new ParametricInverseTransformation(this);
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        dest.setIdentity();
+        dest.m03 = tx.get();
+        dest.m13 = ty.get();
+        dest.m23 = tz.get();
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        out.set(in.x + tx.get(), in.y + ty.get(), in.z + tz.get());
+    }
+}
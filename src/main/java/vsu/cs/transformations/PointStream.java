@@ -0,0 +1,266 @@
+package vsu.cs.transformations;
+
+import javax.vecmath.Point3d;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Ленивое применение цепочки преобразований к потоку точек, упакованных блоками {@code double[]} (x, y, z подряд).
+ * {@link #then} только дописывает преобразование в цепочку; при вызове терминального метода цепочка один раз
+ * сворачивается в одну матрицу, и каждый блок преобразуется целиком, без объектов на точку.
+ * Как и {@link Stream}, экземпляр используется один раз: после {@link #then}, {@link #parallel()}, {@link #sequential()}
+ * или терминального метода повторное обращение к нему бросает {@link IllegalStateException}.
+ *
+ * <p>Блоки из {@link #ofChunks} преобразуются на месте; {@link #of(double[])} и {@link #ofPoints} создают
+ * собственные блоки, исходные данные не меняются. Источник-массив делится пополам по границам блоков,
+ * поэтому хорошо распараллеливается через {@link #parallel()}.
+ */
+public final class PointStream {
+    public static final int DEFAULT_BLOCK_POINTS = 1 << 10;
+
+    private final Spliterator<double[]> source;
+    private final List<Transformation> chain;
+    private final boolean parallel;
+    private boolean linkedOrConsumed;
+
+    private PointStream(Spliterator<double[]> source, List<Transformation> chain, boolean parallel) {
+        this.source = source;
+        this.chain = chain;
+        this.parallel = parallel;
+    }
+
+    public static PointStream of(double[] xyz) {
+        return of(xyz, DEFAULT_BLOCK_POINTS);
+    }
+
+    public static PointStream of(double[] xyz, int blockPoints) {
+        if (xyz.length % 3 != 0) {
+            throw new IllegalArgumentException("Coordinate count is not a multiple of 3: " + xyz.length);
+        }
+        checkBlockPoints(blockPoints);
+        return new PointStream(new ArraySpliterator(xyz, 0, xyz.length / 3, blockPoints), List.of(), false);
+    }
+
+    /**
+     * Источник из готовых блоков, например буферов парсера. Длина каждого блока должна делиться на 3.
+     */
+    public static PointStream ofChunks(Spliterator<double[]> chunks) {
+        return new PointStream(Objects.requireNonNull(chunks), List.of(), false);
+    }
+
+    public static PointStream ofChunks(Stream<double[]> chunks) {
+        return ofChunks(chunks.spliterator());
+    }
+
+    /**
+     * Собирает точки в блоки по {@code DEFAULT_BLOCK_POINTS}; деление наследуется от исходного сплитератора.
+     */
+    public static PointStream ofPoints(Stream<Point3d> points) {
+        return ofPoints(points.spliterator(), DEFAULT_BLOCK_POINTS);
+    }
+
+    public static PointStream ofPoints(Spliterator<Point3d> points, int blockPoints) {
+        checkBlockPoints(blockPoints);
+        return new PointStream(new BatchingSpliterator(Objects.requireNonNull(points), blockPoints), List.of(), false);
+    }
+
+    /**
+     * Добавляет преобразование после уже накопленных. Точки при этом не затрагиваются.
+     */
+    public PointStream then(Transformation transformation) {
+        Objects.requireNonNull(transformation);
+        link();
+        List<Transformation> extended = new ArrayList<>(chain.size() + 1);
+        extended.addAll(chain);
+        extended.add(transformation);
+        return new PointStream(source, Collections.unmodifiableList(extended), parallel);
+    }
+
+    public PointStream parallel() {
+        link();
+        return new PointStream(source, chain, true);
+    }
+
+    public PointStream sequential() {
+        link();
+        return new PointStream(source, chain, false);
+    }
+
+    /**
+     * Свёрнутая цепочка на текущий момент (для параметрических операций — с текущими значениями параметров).
+     */
+    public AffineTransformation fused() {
+        AffineMatrix matrix = new AffineMatrix();
+        for (Transformation transformation : chain) {
+            transformation.concatenateTo(matrix);
+        }
+        return new AffineTransformation(matrix);
+    }
+
+    /**
+     * Поток преобразованных блоков. Матрица цепочки вычисляется здесь, до обработки первой точки.
+     */
+    public Stream<double[]> chunks() {
+        link();
+        AffineTransformation transformation = fused();
+        return StreamSupport.stream(source, parallel).map(chunk -> {
+            if (chunk.length % 3 != 0) {
+                throw new IllegalArgumentException("Chunk length is not a multiple of 3: " + chunk.length);
+            }
+            transformation.applyAll(chunk, 0, chunk.length / 3);
+            return chunk;
+        });
+    }
+
+    public DoubleStream coordinates() {
+        return chunks().flatMapToDouble(Arrays::stream);
+    }
+
+    /**
+     * Удобный вариант с объектом на точку; для больших объёмов лучше {@link #chunks()}.
+     */
+    public Stream<Point3d> points() {
+        return chunks().flatMap(chunk -> {
+            Point3d[] points = new Point3d[chunk.length / 3];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = new Point3d(chunk[3 * i], chunk[3 * i + 1], chunk[3 * i + 2]);
+            }
+            return Arrays.stream(points);
+        });
+    }
+
+    public double[] toArray() {
+        return coordinates().toArray();
+    }
+
+    /**
+     * Помечает экземпляр использованным: производный поток или терминальный метод забирает источник себе.
+     */
+    private void link() {
+        if (linkedOrConsumed) {
+            throw new IllegalStateException("Point stream has already been linked or consumed");
+        }
+        linkedOrConsumed = true;
+    }
+
+    private static void checkBlockPoints(int blockPoints) {
+        if (blockPoints <= 0 || blockPoints > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Invalid block size: " + blockPoints);
+        }
+    }
+
+    /**
+     * Блоки массива точек {@code [from, to)}; каждый блок копируется, исходный массив не меняется.
+     */
+    private static final class ArraySpliterator implements Spliterator<double[]> {
+        private final double[] xyz;
+        private int from;
+        private final int to;
+        private final int blockPoints;
+
+        ArraySpliterator(double[] xyz, int from, int to, int blockPoints) {
+            this.xyz = xyz;
+            this.from = from;
+            this.to = to;
+            this.blockPoints = blockPoints;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super double[]> action) {
+            if (from >= to) {
+                return false;
+            }
+            int end = Math.min(to, from + blockPoints);
+            double[] block = Arrays.copyOfRange(xyz, 3 * from, 3 * end);
+            from = end;
+            action.accept(block);
+            return true;
+        }
+
+        @Override
+        public Spliterator<double[]> trySplit() {
+            long blocks = estimateSize();
+            if (blocks < 2) {
+                return null;
+            }
+            int middle = from + (int) (blocks / 2) * blockPoints;
+            Spliterator<double[]> prefix = new ArraySpliterator(xyz, from, middle, blockPoints);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return ((long) to - from + blockPoints - 1) / blockPoints;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Упаковывает точки исходного сплитератора в блоки по {@code blockPoints}.
+     */
+    private static final class BatchingSpliterator implements Spliterator<double[]>, Consumer<Point3d> {
+        private final Spliterator<Point3d> points;
+        private final int blockPoints;
+        private double[] block;
+        private int filled;
+
+        BatchingSpliterator(Spliterator<Point3d> points, int blockPoints) {
+            this.points = points;
+            this.blockPoints = blockPoints;
+        }
+
+        @Override
+        public void accept(Point3d point) {
+            int o = 3 * filled++;
+            block[o] = point.x;
+            block[o + 1] = point.y;
+            block[o + 2] = point.z;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super double[]> action) {
+            block = new double[3 * blockPoints];
+            filled = 0;
+            while (filled < blockPoints && points.tryAdvance(this)) {
+                // накапливаем блок
+            }
+            double[] result = filled == blockPoints ? block : Arrays.copyOf(block, 3 * filled);
+            block = null;
+            if (filled == 0) {
+                return false;
+            }
+            action.accept(result);
+            return true;
+        }
+
+        @Override
+        public Spliterator<double[]> trySplit() {
+            Spliterator<Point3d> prefix = points.trySplit();
+            return prefix == null ? null : new BatchingSpliterator(prefix, blockPoints);
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = points.estimateSize();
+            return size == Long.MAX_VALUE ? size : (size + blockPoints - 1) / blockPoints;
+        }
+
+        @Override
+        public int characteristics() {
+            return (points.characteristics() & ORDERED) | NONNULL;
+        }
+    }
+}
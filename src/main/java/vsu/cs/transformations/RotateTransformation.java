@@ -1,47 +1,115 @@
 package vsu.cs.transformations;
 
+import vsu.cs.metrics.TransformationMetrics;
+
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
 
 public class RotateTransformation implements Transformation {
-    private final Matrix4d rotation;
+    private final Axis axis;
+    private final double angle;
+    private final double cos;
+    private final double sin;
 
     public RotateTransformation(Axis axis, double angle) {
-       this.rotation =  createRotationMatrix(axis, angle);
+       if (axis == null) {
+           throw new IllegalArgumentException("Unknown axis:" + axis);
+       }
+       this.axis = axis;
+       this.angle = angle;
+       RotationCache.SinCos sinCos = RotationCache.shared().get(angle);
+       this.cos = sinCos.getCos();
+       this.sin = sinCos.getSin();
+    }
+
+    public Axis getAxis() {
+        return axis;
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    @Override
+    public Transformation fuse(Transformation next) {
+        if (next instanceof RotateTransformation) {
+            RotateTransformation rotate = (RotateTransformation) next;
+            if (rotate.axis == axis) {
+                return new RotateTransformation(axis, angle + rotate.angle);
+            }
+        }
+        return null;
+    }
+
+    static void getMatrix(Axis axis, double cos, double sin, Matrix4d dest) {
+        dest.setIdentity();
+        switch (axis) {
+            case X:
+                dest.m11 = cos; dest.m12 = sin;
+                dest.m21 = -sin; dest.m22 = cos;
+                break;
+            case Y:
+                dest.m00 = cos; dest.m02 = sin;
+                dest.m20 = -sin; dest.m22 = cos;
+                break;
+            case Z:
+                dest.m00 = cos; dest.m01 = sin;
+                dest.m10 = -sin; dest.m11 = cos;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown axis:" + axis);
+        }
     }
 
-    private Matrix4d createRotationMatrix(Axis axis, double angle) {
+    static void apply(Axis axis, double cos, double sin, Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
         switch (axis) {
             case X:
-                return new Matrix4d(
-                        1, 0, 0, 0,
-                        0, Math.cos(angle), Math.sin(angle), 0,
-                        0, -Math.sin(angle), Math.cos(angle), 0,
-                        0, 0, 0, 1
-                );
+                out.set(x, cos * y + sin * z, cos * z - sin * y);
+                break;
             case Y:
-                return new Matrix4d(
-                        Math.cos(angle), 0, Math.sin(angle), 0,
-                        0, 1, 0, 0,
-                        -Math.sin(angle), 0, Math.cos(angle), 0,
-                        0, 0, 0, 1
-                );
+                out.set(cos * x + sin * z, y, cos * z - sin * x);
+                break;
             case Z:
-                return new Matrix4d(
-                        Math.cos(angle), Math.sin(angle), 0, 0,
-                        -Math.sin(angle), Math.cos(angle), 0, 0,
-                        0, 0, 1, 0,
-                        0, 0, 0, 1
-                );
+                out.set(cos * x + sin * y, cos * y - sin * x, z);
+                break;
             default:
                 throw new IllegalArgumentException("Unknown axis:" + axis);
         }
     }
 
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preRotate(axis, cos, sin);
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        target.preRotate(axis, cos, -sin);
+    }
+
+    @Override
+    public RotateTransformation inverse() {
+        return new RotateTransformation(axis, -angle);
+    }
+
     @Override
     public Matrix4d getMatrix() {
-        Matrix4d matrix = new Matrix4d();
-        matrix.set(rotation);
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
         return matrix;
     }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        getMatrix(axis, cos, sin, dest);
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        apply(axis, cos, sin, in, out);
+    }
 }
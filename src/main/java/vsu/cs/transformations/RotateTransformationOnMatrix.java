@@ -0,0 +1,148 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Vector3d;
+
+/**
+ * Поворот, заранее собранный в одну матрицу 3x3: углы Эйлера или поворот вокруг произвольной оси.
+ * В цепочке занимает одну операцию вместо трёх, соседние такие повороты сливаются произведением матриц.
+ */
+public final class RotateTransformationOnMatrix implements Transformation {
+    private final double r00, r01, r02;
+    private final double r10, r11, r12;
+    private final double r20, r21, r22;
+
+    private RotateTransformationOnMatrix(double r00, double r01, double r02,
+                                         double r10, double r11, double r12,
+                                         double r20, double r21, double r22) {
+        this.r00 = r00;
+        this.r01 = r01;
+        this.r02 = r02;
+        this.r10 = r10;
+        this.r11 = r11;
+        this.r12 = r12;
+        this.r20 = r20;
+        this.r21 = r21;
+        this.r22 = r22;
+    }
+
+    /**
+     * Эквивалент трёх поворотов вокруг осей в порядке {@code order} с углами {@code a}, {@code b}, {@code c}.
+     */
+    public static RotateTransformationOnMatrix euler(EulerOrder order, double a, double b, double c) {
+        if (order == null) {
+            throw new IllegalArgumentException("Euler order must not be null");
+        }
+        RotationCache cache = RotationCache.shared();
+        AffineMatrix m = new AffineMatrix();
+        RotationCache.SinCos first = cache.get(a);
+        m.preRotate(order.getFirst(), first.getCos(), first.getSin());
+        RotationCache.SinCos second = cache.get(b);
+        m.preRotate(order.getSecond(), second.getCos(), second.getSin());
+        RotationCache.SinCos third = cache.get(c);
+        m.preRotate(order.getThird(), third.getCos(), third.getSin());
+        return new RotateTransformationOnMatrix(
+                m.m00, m.m01, m.m02,
+                m.m10, m.m11, m.m12,
+                m.m20, m.m21, m.m22
+        );
+    }
+
+    /**
+     * Поворот вокруг оси {@code axis} (нормализуется) по формуле Родрига; сама ось остаётся неподвижной.
+     * Положительный угол — поворот по часовой стрелке при взгляде с конца оси, как у {@code rotateX} и {@code rotateZ}:
+     * {@code axisAngle((1, 0, 0), angle)} совпадает с {@code rotateX(angle)}. {@code rotateY} в этом проекте
+     * вращает в обратную сторону, поэтому {@code axisAngle((0, 1, 0), angle)} совпадает с {@code rotateY(-angle)}.
+     *
+     * @throws IllegalArgumentException если ось нулевая
+     */
+    public static RotateTransformationOnMatrix axisAngle(Vector3d axis, double angle) {
+        double length = axis.length();
+        if (length == 0 || !Double.isFinite(length)) {
+            throw new IllegalArgumentException("Invalid rotation axis: " + axis);
+        }
+        double x = axis.x / length;
+        double y = axis.y / length;
+        double z = axis.z / length;
+        double cos = Math.cos(angle);
+        double sin = -Math.sin(angle);
+        double t = 1 - cos;
+        return new RotateTransformationOnMatrix(
+                cos + x * x * t, x * y * t - z * sin, x * z * t + y * sin,
+                y * x * t + z * sin, cos + y * y * t, y * z * t - x * sin,
+                z * x * t - y * sin, z * y * t + x * sin, cos + z * z * t
+        );
+    }
+
+    @Override
+    public Transformation fuse(Transformation next) {
+        if (next instanceof RotateTransformationOnMatrix) {
+            RotateTransformationOnMatrix n = (RotateTransformationOnMatrix) next;
+            return new RotateTransformationOnMatrix(
+                    n.r00 * r00 + n.r01 * r10 + n.r02 * r20, n.r00 * r01 + n.r01 * r11 + n.r02 * r21, n.r00 * r02 + n.r01 * r12 + n.r02 * r22,
+                    n.r10 * r00 + n.r11 * r10 + n.r12 * r20, n.r10 * r01 + n.r11 * r11 + n.r12 * r21, n.r10 * r02 + n.r11 * r12 + n.r12 * r22,
+                    n.r20 * r00 + n.r21 * r10 + n.r22 * r20, n.r20 * r01 + n.r21 * r11 + n.r22 * r21, n.r20 * r02 + n.r21 * r12 + n.r22 * r22
+            );
+        }
+        return null;
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiplyLinear(
+                r00, r01, r02,
+                r10, r11, r12,
+                r20, r21, r22
+        );
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        target.preMultiplyLinear(
+                r00, r10, r20,
+                r01, r11, r21,
+                r02, r12, r22
+        );
+    }
+
+    @Override
+    public RotateTransformationOnMatrix inverse() {
+        return new RotateTransformationOnMatrix(
+                r00, r10, r20,
+                r01, r11, r21,
+                r02, r12, r22
+        );
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        AffineMatrix.set(dest,
+                r00, r01, r02, 0,
+                r10, r11, r12, 0,
+                r20, r21, r22, 0
+        );
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
+        out.set(
+                r00 * x + r01 * y + r02 * z,
+                r10 * x + r11 * y + r12 * z,
+                r20 * x + r21 * y + r22 * z
+        );
+    }
+}
@@ -1,49 +1,198 @@
 package vsu.cs.transformations;
 
+import vsu.cs.metrics.TransformationMetrics;
+
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
 import javax.vecmath.Quat4d;
 
 public class RotateTransformationOnQuad implements Transformation {
+    private final Axis axis;
+    private final double angle;
     private final Quat4d rotation;
 
 
     public RotateTransformationOnQuad(Axis axis, double angle) {
+        this.axis = axis;
+        this.angle = angle;
         this.rotation = createRotationQuad(axis, angle);
     }
 
+    /**
+     * Произвольный поворот, заданный кватернионом (нормализуется). Ось и угол у такого поворота не определены.
+     */
+    public RotateTransformationOnQuad(Quat4d rotation) {
+        this.axis = null;
+        this.angle = Double.NaN;
+        this.rotation = new Quat4d(rotation);
+        this.rotation.normalize();
+    }
+
+    /**
+     * Ось поворота или {@code null}, если поворот получен произведением кватернионов.
+     */
+    public Axis getAxis() {
+        return axis;
+    }
+
+    public double getAngle() {
+        return angle;
+    }
+
+    public Quat4d getQuaternion() {
+        return new Quat4d(rotation);
+    }
+
+    /**
+     * Подряд идущие кватернионные повороты объединяются произведением кватернионов (16 умножений),
+     * в матрицу результат переводится один раз при композиции.
+     */
+    @Override
+    public Transformation fuse(Transformation next) {
+        if (next instanceof RotateTransformationOnQuad) {
+            RotateTransformationOnQuad rotate = (RotateTransformationOnQuad) next;
+            if (axis != null && rotate.axis == axis) {
+                return new RotateTransformationOnQuad(axis, angle + rotate.angle);
+            }
+            Quat4d product = new Quat4d();
+            product.mul(rotate.rotation, rotation);
+            return new RotateTransformationOnQuad(product);
+        }
+        return null;
+    }
+
     private Quat4d createRotationQuad(Axis axis, double angle) {
+        if (axis == null) {
+            throw new IllegalArgumentException("Unknow axis:" + axis);
+        }
+        RotationCache.SinCos half = RotationCache.shared().get(angle / 2);
+        double sin = half.getSin();
+        double cos = half.getCos();
         switch (axis) {
             case X:
                 return new Quat4d(
-                        -Math.sin(angle/2),
+                        -sin,
                         0,
                         0,
-                        Math.cos(angle/2)
+                        cos
                 );
             case Y:
                 return new Quat4d(
                         0,
-                        Math.sin(angle/2),
+                        sin,
                         0,
-                        Math.cos(angle/2)
+                        cos
                 );
             case Z:
                 return new Quat4d(
                         0,
                         0,
-                        -Math.sin(angle/2),
-                        Math.cos(angle/2)
+                        -sin,
+                        cos
                 );
             default:
                 throw new IllegalArgumentException("Unknow axis:" + axis);
         }
     }
 
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiplyLinear(
+                r00(), r01(), r02(),
+                r10(), r11(), r12(),
+                r20(), r21(), r22()
+        );
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        double x = rotation.x, y = rotation.y, z = rotation.z, w = rotation.w;
+        target.preMultiplyLinear(
+                1.0 - 2.0 * y * y - 2.0 * z * z, 2.0 * (x * y + w * z), 2.0 * (x * z - w * y),
+                2.0 * (x * y - w * z), 1.0 - 2.0 * x * x - 2.0 * z * z, 2.0 * (y * z + w * x),
+                2.0 * (x * z + w * y), 2.0 * (y * z - w * x), 1.0 - 2.0 * x * x - 2.0 * y * y
+        );
+    }
+
+    @Override
+    public RotateTransformationOnQuad inverse() {
+        if (axis != null) {
+            return new RotateTransformationOnQuad(axis, -angle);
+        }
+        Quat4d conjugate = new Quat4d();
+        conjugate.conjugate(rotation);
+        return new RotateTransformationOnQuad(conjugate);
+    }
+
     @Override
     public Matrix4d getMatrix() {
-        Matrix4d matrix = new Matrix4d();
-        matrix.set(rotation);
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
         return matrix;
     }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        AffineMatrix.set(dest,
+                r00(), r01(), r02(), 0,
+                r10(), r11(), r12(), 0,
+                r20(), r21(), r22(), 0
+        );
+    }
+
+    /**
+     * Тот же матричный кернел, что у {@link #concatenateTo} и пакетных методов, поэтому результат совпадает
+     * с {@code applyAll} побитно.
+     */
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
+        out.set(
+                r00() * x + r01() * y + r02() * z,
+                r10() * x + r11() * y + r12() * z,
+                r20() * x + r21() * y + r22() * z
+        );
+    }
+
+    /**
+     * Элементы матрицы поворота по кватерниону.
+     */
+    private double r00() {
+        return 1.0 - 2.0 * rotation.y * rotation.y - 2.0 * rotation.z * rotation.z;
+    }
+
+    private double r01() {
+        return 2.0 * (rotation.x * rotation.y - rotation.w * rotation.z);
+    }
+
+    private double r02() {
+        return 2.0 * (rotation.x * rotation.z + rotation.w * rotation.y);
+    }
+
+    private double r10() {
+        return 2.0 * (rotation.x * rotation.y + rotation.w * rotation.z);
+    }
+
+    private double r11() {
+        return 1.0 - 2.0 * rotation.x * rotation.x - 2.0 * rotation.z * rotation.z;
+    }
+
+    private double r12() {
+        return 2.0 * (rotation.y * rotation.z - rotation.w * rotation.x);
+    }
+
+    private double r20() {
+        return 2.0 * (rotation.x * rotation.z - rotation.w * rotation.y);
+    }
+
+    private double r21() {
+        return 2.0 * (rotation.y * rotation.z + rotation.w * rotation.x);
+    }
+
+    private double r22() {
+        return 1.0 - 2.0 * rotation.x * rotation.x - 2.0 * rotation.y * rotation.y;
+    }
 }
@@ -0,0 +1,158 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный потокобезопасный кэш синуса и косинуса угла с ключом по битам угла (от оси они не зависят).
+ * Общий экземпляр {@link #shared()} используют {@link RotateTransformation}, {@link RotateTransformationOnQuad}
+ * (для половинных углов) и {@link RotateTransformationOnMatrix}.
+ *
+ * <p>Таблица двухвходово-ассоциативная: угол попадает в пару слотов, внутри пары новый или найденный во втором слоте
+ * элемент ставится первым, вытесняется давно использованный (LRU внутри пары). Элементы неизменяемы и публикуются
+ * через final-поля, поэтому чтение обходится без блокировок и выделения памяти; гонка записей может лишь
+ * потерять элемент, но не испортить его. Ёмкость общего кэша задаётся свойством
+ * {@code vsu.cs.rotationCache.capacity} (округляется вверх до степени двойки), 0 отключает кэширование.
+ */
+public final class RotationCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final RotationCache SHARED =
+            new RotationCache(Integer.getInteger("vsu.cs.rotationCache.capacity", DEFAULT_CAPACITY));
+
+    private final SinCos[] table;
+    private final int setMask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public RotationCache(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int slots = capacity == 0 ? 0 : Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.table = new SinCos[slots];
+        this.setMask = Math.max(0, (slots >>> 1) - 1);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    public static RotationCache shared() {
+        return SHARED;
+    }
+
+    public SinCos get(double angle) {
+        SinCos[] table = this.table;
+        if (table.length == 0) {
+            if (TransformationMetrics.ENABLED) {
+                misses.increment();
+            }
+            return new SinCos(0, Math.sin(angle), Math.cos(angle));
+        }
+        long bits = Double.doubleToRawLongBits(angle);
+        int first = slot(bits);
+
+        SinCos entry = table[first];
+        if (entry != null && entry.bits == bits) {
+            if (TransformationMetrics.ENABLED) {
+                hits.increment();
+            }
+            return entry;
+        }
+        SinCos second = table[first + 1];
+        if (second != null && second.bits == bits) {
+            if (TransformationMetrics.ENABLED) {
+                hits.increment();
+            }
+            table[first] = second;
+            table[first + 1] = entry;
+            return second;
+        }
+
+        if (TransformationMetrics.ENABLED) {
+            misses.increment();
+        }
+        SinCos computed = new SinCos(bits, Math.sin(angle), Math.cos(angle));
+        table[first + 1] = entry;
+        table[first] = computed;
+        return computed;
+    }
+
+    /**
+     * Ёмкость после округления до степени двойки.
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    /**
+     * Попадания и промахи считаются только при включённых метриках ({@code -Dvsu.cs.metrics=true}): счётчик
+     * на горячем пути обходится дороже самого поиска. Без флага оба счётчика равны нулю.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * См. {@link #getHitCount()}.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Число занятых слотов; под конкурентной записью — приблизительное.
+     */
+    public int size() {
+        int size = 0;
+        for (SinCos entry : table) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Очищает кэш и сбрасывает счётчики попаданий и промахов.
+     */
+    public void clear() {
+        Arrays.fill(table, null);
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Первый слот пары. Старшая половина битов (знак и экспонента) сначала подмешивается к младшей, иначе углы
+     * {@code a} и {@code -a} совпадали бы по хэшу; затем множитель Фибоначчи, индекс берётся из старших битов.
+     */
+    private int slot(long bits) {
+        long hash = (bits ^ (bits >>> 32)) * 0x9E3779B97F4A7C15L;
+        return ((int) (hash >>> 35) & setMask) << 1;
+    }
+
+    /**
+     * Неизменяемая пара синус/косинус одного угла.
+     */
+    public static final class SinCos {
+        private final long bits;
+        private final double sin;
+        private final double cos;
+
+        SinCos(long bits, double sin, double cos) {
+            this.bits = bits;
+            this.sin = sin;
+            this.cos = cos;
+        }
+
+        public double getSin() {
+            return sin;
+        }
+
+        public double getCos() {
+            return cos;
+        }
+    }
+}
@@ -1,17 +1,54 @@
 package vsu.cs.transformations;
 
 import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
 
 
 public class SaveTransformation implements Transformation{
-    private final Matrix4d saveCondition;
+    private final AffineMatrix saveCondition;
+    private TrsDecomposition decomposition;
 
     public SaveTransformation(Matrix4d matrix) {
-        this.saveCondition = (Matrix4d) matrix.clone();
+        this.saveCondition = new AffineMatrix(matrix);
+    }
+
+    public SaveTransformation(AffineMatrix matrix) {
+        this.saveCondition = new AffineMatrix(matrix);
+    }
+
+    /**
+     * Снимок текущей матрицы {@code transformation} с единственной копией коэффициентов.
+     */
+    public SaveTransformation(Transformation transformation) {
+        this.saveCondition = new AffineMatrix();
+        transformation.concatenateTo(saveCondition);
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiply(saveCondition);
+    }
+
+    @Override
+    public TrsDecomposition decompose() {
+        if (decomposition == null) {
+            decomposition = TrsDecomposition.of(saveCondition);
+        }
+        return decomposition;
     }
 
     @Override
     public Matrix4d getMatrix() {
-        return (Matrix4d) this.saveCondition.clone();
+        return this.saveCondition.toMatrix4d();
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        saveCondition.get(dest);
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        saveCondition.transform(in, out);
     }
 }
@@ -1,5 +1,7 @@
 package vsu.cs.transformations;
 
+import vsu.cs.metrics.TransformationMetrics;
+
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
 
@@ -16,13 +18,70 @@ public class ScaleTransformation implements Transformation {
         this(uniformScale, uniformScale, uniformScale);
     }
 
+    public double getScaleX() {
+        return sx;
+    }
+
+    public double getScaleY() {
+        return sy;
+    }
+
+    public double getScaleZ() {
+        return sz;
+    }
+
+    @Override
+    public Transformation fuse(Transformation next) {
+        if (next instanceof ScaleTransformation) {
+            ScaleTransformation scale = (ScaleTransformation) next;
+            return new ScaleTransformation(sx * scale.sx, sy * scale.sy, sz * scale.sz);
+        }
+        return null;
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preScale(sx, sy, sz);
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        checkInvertible();
+        target.preScale(1 / sx, 1 / sy, 1 / sz);
+    }
+
+    @Override
+    public ScaleTransformation inverse() {
+        checkInvertible();
+        return new ScaleTransformation(1 / sx, 1 / sy, 1 / sz);
+    }
+
+    private void checkInvertible() {
+        if (sx == 0 || sy == 0 || sz == 0) {
+            throw new IllegalStateException("Scale transformation is not invertible: " + sx + ", " + sy + ", " + sz);
+        }
+    }
+
     @Override
     public Matrix4d getMatrix() {
-        return new Matrix4d(
-            sx, 0, 0, 0,
-            0, sy, 0, 0,
-            0, 0, sz, 0,
-            0, 0, 0, 1
-        );
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        dest.setIdentity();
+        dest.m00 = sx;
+        dest.m11 = sy;
+        dest.m22 = sz;
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        out.set(in.x * sx, in.y * sy, in.z * sz);
     }
 }
@@ -2,13 +2,177 @@ package vsu.cs.transformations;
 
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 public interface Transformation {
     Matrix4d getMatrix();
 
+    /**
+     * Записывает матрицу в {@code dest} без выделения новой {@link Matrix4d}. Реализации переопределяют метод,
+     * вариант по умолчанию проходит через {@link #toAffineMatrix()}.
+     */
+    default void getMatrix(Matrix4d dest) {
+        toAffineMatrix().get(dest);
+    }
+
+    /**
+     * Применяет это преобразование после уже накопленного в {@code target}: {@code target = M * target}.
+     * Реализации переопределяют метод специализированным ядром вместо общего умножения матриц.
+     */
+    default void concatenateTo(AffineMatrix target) {
+        target.preMultiply(this.getMatrix());
+    }
+
+    /**
+     * {@code target = M^-1 * target}. Реализации строят обратное аналитически (обратный масштаб,
+     * поворот на противоположный угол, перенос с обратным знаком), по умолчанию обращается матрица 3x4.
+     *
+     * @throws IllegalStateException если преобразование необратимо (например, нулевой масштаб)
+     */
+    default void concatenateInverseTo(AffineMatrix target) {
+        AffineMatrix inverse = toAffineMatrix();
+        inverse.invert();
+        target.preMultiply(inverse);
+    }
+
+    /**
+     * Обратное преобразование. Базовые операции строят его аналитически, остальные — обращением матрицы 3x4.
+     *
+     * @throws IllegalStateException если преобразование необратимо (например, нулевой масштаб)
+     */
+    default Transformation inverse() {
+        AffineMatrix inverse = toAffineMatrix();
+        inverse.invert();
+        return new AffineTransformation(inverse);
+    }
+
     default Point3d apply (Point3d point) {
         Point3d result = new Point3d();
-        this.getMatrix().transform(point, result);
+        apply(point, result);
         return result;
     }
+
+    /**
+     * Записывает образ точки {@code in} в {@code out}; {@code out} может совпадать с {@code in}.
+     */
+    default void apply(Point3d in, Point3d out) {
+        toAffineMatrix().transform(in, out);
+    }
+
+    /**
+     * Возвращает одно преобразование, эквивалентное применению сначала {@code this}, затем {@code next},
+     * или {@code null}, если их нельзя объединить дешевле общего умножения матриц.
+     */
+    default Transformation fuse(Transformation next) {
+        return null;
+    }
+
+    default AffineMatrix toAffineMatrix() {
+        AffineMatrix matrix = new AffineMatrix();
+        this.concatenateTo(matrix);
+        return matrix;
+    }
+
+    /**
+     * Разложение на перенос, поворот и масштаб (с признаком сдвига).
+     *
+     * @throws IllegalStateException если масштаб по одной из осей нулевой
+     */
+    default TrsDecomposition decompose() {
+        return TrsDecomposition.of(toAffineMatrix());
+    }
+
+    /**
+     * Ленивый поток точек из упакованного массива x, y, z; к нему можно дописывать другие преобразования через
+     * {@link PointStream#then}, вся цепочка сворачивается в одну матрицу до обработки первой точки.
+     */
+    default PointStream stream(double[] xyz) {
+        return PointStream.of(xyz).then(this);
+    }
+
+    /**
+     * Поток блоков-массивов x, y, z, преобразуемых на месте.
+     */
+    default PointStream stream(Spliterator<double[]> chunks) {
+        return PointStream.ofChunks(chunks).then(this);
+    }
+
+    default PointStream stream(Stream<Point3d> points) {
+        return PointStream.ofPoints(points).then(this);
+    }
+
+    default AffineTransformation compile() {
+        return new AffineTransformation(toAffineMatrix());
+    }
+
+    default FloatAffineTransformation compileFloat() {
+        return new FloatAffineTransformation(toAffineMatrix());
+    }
+
+    /**
+     * Применяет преобразование к {@code count} точкам, упакованным в массив как x0, y0, z0, x1, y1, z1, ...
+     * Чтение начинается с индекса {@code offset} в {@code xyzIn}, результат пишется по тому же индексу в {@code xyzOut}.
+     * Массивы могут совпадать.
+     */
+    default void applyAll(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        toAffineMatrix().transform(xyzIn, xyzOut, offset, count);
+    }
+
+    default void applyAll(double[] xyz, int offset, int count) {
+        applyAll(xyz, xyz, offset, count);
+    }
+
+    default void applyAll(double[] xyz) {
+        if (xyz.length % 3 != 0) {
+            throw new IllegalArgumentException("Array length is not a multiple of 3: " + xyz.length);
+        }
+        applyAll(xyz, xyz, 0, xyz.length / 3);
+    }
+
+    /**
+     * Преобразует направления (без переноса), упакованные так же, как в {@link #applyAll(double[], double[], int, int)}.
+     */
+    default void applyVector(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        toAffineMatrix().transformVectors(xyzIn, xyzOut, offset, count);
+    }
+
+    default void applyVector(double[] xyz, int offset, int count) {
+        applyVector(xyz, xyz, offset, count);
+    }
+
+    /**
+     * Преобразует нормали обратной транспонированной матрицей. Результат не нормируется.
+     */
+    default void applyNormal(double[] xyzIn, double[] xyzOut, int offset, int count) {
+        AffineMatrix inverse = new AffineMatrix();
+        concatenateInverseTo(inverse);
+        inverse.transformTransposed(xyzIn, xyzOut, offset, count);
+    }
+
+    default void applyNormal(double[] xyz, int offset, int count) {
+        applyNormal(xyz, xyz, offset, count);
+    }
+
+    /**
+     * Преобразует осевые боксы (по 6 чисел: min, затем max) без обращения к вершинам.
+     */
+    default void transformBoxes(double[] boxesIn, double[] boxesOut, int offset, int count) {
+        toAffineMatrix().transformBoxes(boxesIn, boxesOut, offset, count);
+    }
+
+    default void transformBoxes(double[] boxes, int offset, int count) {
+        transformBoxes(boxes, boxes, offset, count);
+    }
+
+    /**
+     * Преобразует ограничивающие сферы (по 4 числа: центр и радиус).
+     */
+    default void transformSpheres(double[] spheresIn, double[] spheresOut, int offset, int count) {
+        toAffineMatrix().transformSpheres(spheresIn, spheresOut, offset, count);
+    }
+
+    default void transformSpheres(double[] spheres, int offset, int count) {
+        transformSpheres(spheres, spheres, offset, count);
+    }
 }
@@ -0,0 +1,95 @@
+package vsu.cs.transformations;
+
+/**
+ * Интерполяция между двумя состояниями (например, двумя результатами {@code AffineBuilder.build()}).
+ * Оба состояния один раз раскладываются на перенос, кватернион поворота и масштаб;
+ * {@link #interpolate(double, Mode, AffineMatrix)} затем работает только с примитивами и не выделяет память,
+ * поэтому подходит для тысяч объектов за кадр.
+ */
+public final class TransformationInterpolator {
+    public enum Mode {
+        SLERP, NLERP
+    }
+
+    private static final double SLERP_THRESHOLD = 0.9995;
+    private static final int T = 0;
+    private static final int Q = 3;
+    private static final int S = 7;
+
+    private final double[] from;
+    private final double[] to;
+
+    public TransformationInterpolator(Transformation from, Transformation to) {
+        this.from = new double[10];
+        this.to = new double[10];
+        from.decompose().toArray(this.from, 0);
+        to.decompose().toArray(this.to, 0);
+        if (dot(this.from, this.to) < 0) {
+            for (int i = Q; i < Q + 4; i++) {
+                this.to[i] = -this.to[i];
+            }
+        }
+    }
+
+    public AffineTransformation interpolate(double t) {
+        AffineMatrix result = new AffineMatrix();
+        interpolate(t, Mode.SLERP, result);
+        return new AffineTransformation(result);
+    }
+
+    public void interpolate(double t, Mode mode, AffineMatrix dest) {
+        double qx, qy, qz, qw;
+        double cos = dot(from, to);
+        if (mode == Mode.SLERP && cos < SLERP_THRESHOLD) {
+            double theta = Math.acos(cos);
+            double sin = Math.sin(theta);
+            double a = Math.sin((1 - t) * theta) / sin;
+            double b = Math.sin(t * theta) / sin;
+            qx = a * from[Q] + b * to[Q];
+            qy = a * from[Q + 1] + b * to[Q + 1];
+            qz = a * from[Q + 2] + b * to[Q + 2];
+            qw = a * from[Q + 3] + b * to[Q + 3];
+        } else {
+            qx = lerp(from[Q], to[Q], t);
+            qy = lerp(from[Q + 1], to[Q + 1], t);
+            qz = lerp(from[Q + 2], to[Q + 2], t);
+            qw = lerp(from[Q + 3], to[Q + 3], t);
+            double norm = Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+            qx /= norm;
+            qy /= norm;
+            qz /= norm;
+            qw /= norm;
+        }
+
+        dest.setTrs(
+                lerp(from[T], to[T], t), lerp(from[T + 1], to[T + 1], t), lerp(from[T + 2], to[T + 2], t),
+                qx, qy, qz, qw,
+                lerp(from[S], to[S], t), lerp(from[S + 1], to[S + 1], t), lerp(from[S + 2], to[S + 2], t));
+    }
+
+    /**
+     * Пакетный вариант: для каждого интерполятора пишет 12 коэффициентов (строки 3x4) в {@code dest}
+     * начиная с {@code 12 * i}. {@code scratch} переиспользуется между вызовами.
+     */
+    public static void interpolateAll(TransformationInterpolator[] interpolators, double t, Mode mode,
+                                      AffineMatrix scratch, double[] dest) {
+        if (dest.length < 12 * interpolators.length) {
+            throw new IllegalArgumentException("Destination is too small: " + dest.length);
+        }
+        for (int i = 0; i < interpolators.length; i++) {
+            interpolators[i].interpolate(t, mode, scratch);
+            int o = 12 * i;
+            dest[o] = scratch.m00; dest[o + 1] = scratch.m01; dest[o + 2] = scratch.m02; dest[o + 3] = scratch.m03;
+            dest[o + 4] = scratch.m10; dest[o + 5] = scratch.m11; dest[o + 6] = scratch.m12; dest[o + 7] = scratch.m13;
+            dest[o + 8] = scratch.m20; dest[o + 9] = scratch.m21; dest[o + 10] = scratch.m22; dest[o + 11] = scratch.m23;
+        }
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[Q] * b[Q] + a[Q + 1] * b[Q + 1] + a[Q + 2] * b[Q + 2] + a[Q + 3] * b[Q + 3];
+    }
+}
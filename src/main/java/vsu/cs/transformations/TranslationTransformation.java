@@ -1,5 +1,7 @@
 package vsu.cs.transformations;
 
+import vsu.cs.metrics.TransformationMetrics;
+
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
 
@@ -12,13 +14,62 @@ public class TranslationTransformation implements Transformation {
         this.tz = tz;
     }
 
+    public double getTranslationX() {
+        return tx;
+    }
+
+    public double getTranslationY() {
+        return ty;
+    }
+
+    public double getTranslationZ() {
+        return tz;
+    }
+
+    @Override
+    public Transformation fuse(Transformation next) {
+        if (next instanceof TranslationTransformation) {
+            TranslationTransformation translation = (TranslationTransformation) next;
+            return new TranslationTransformation(tx + translation.tx, ty + translation.ty, tz + translation.tz);
+        }
+        return null;
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preTranslate(tx, ty, tz);
+    }
+
+    @Override
+    public void concatenateInverseTo(AffineMatrix target) {
+        target.preTranslate(-tx, -ty, -tz);
+    }
+
+    @Override
+    public TranslationTransformation inverse() {
+        return new TranslationTransformation(-tx, -ty, -tz);
+    }
+
     @Override
     public Matrix4d getMatrix() {
-        return new Matrix4d(
-                1, 0, 0, tx,
-                0, 1, 0, ty,
-                0, 0, 1, tz,
-                0, 0, 0, 1
-        );
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        dest.setIdentity();
+        dest.m03 = tx;
+        dest.m13 = ty;
+        dest.m23 = tz;
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        out.set(in.x + tx, in.y + ty, in.z + tz);
     }
 }
@@ -0,0 +1,161 @@
+package vsu.cs.transformations;
+
+import javax.vecmath.Quat4d;
+import javax.vecmath.Vector3d;
+
+/**
+ * Разложение аффинного преобразования на перенос, поворот (кватернион) и масштаб: {@code M = T * R * S}.
+ * Если столбцы линейной части не ортогональны, матрица содержит сдвиг (shear): поворот тогда получается
+ * ортогонализацией Грама — Шмидта, и {@link #toTransformation()} восстанавливает матрицу лишь приближённо.
+ */
+public final class TrsDecomposition {
+    private static final double SHEAR_TOLERANCE = 1E-9;
+
+    private final double tx, ty, tz;
+    private final double qx, qy, qz, qw;
+    private final double sx, sy, sz;
+    private final boolean sheared;
+
+    private TrsDecomposition(double tx, double ty, double tz,
+                             double qx, double qy, double qz, double qw,
+                             double sx, double sy, double sz,
+                             boolean sheared) {
+        this.tx = tx;
+        this.ty = ty;
+        this.tz = tz;
+        this.qx = qx;
+        this.qy = qy;
+        this.qz = qz;
+        this.qw = qw;
+        this.sx = sx;
+        this.sy = sy;
+        this.sz = sz;
+        this.sheared = sheared;
+    }
+
+    /**
+     * @throws IllegalStateException если масштаб по одной из осей нулевой
+     */
+    public static TrsDecomposition of(AffineMatrix m) {
+        double[] v = new double[10];
+        boolean sheared = decompose(m, v, 0);
+        return new TrsDecomposition(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], v[9], sheared);
+    }
+
+    /**
+     * Вариант без выделения памяти: пишет 10 чисел в формате {@link #toArray(double[], int)}
+     * и возвращает признак сдвига.
+     *
+     * @throws IllegalStateException если масштаб по одной из осей нулевой
+     */
+    public static boolean decompose(AffineMatrix m, double[] dest, int offset) {
+        double c0x = m.m00, c0y = m.m10, c0z = m.m20;
+        double c1x = m.m01, c1y = m.m11, c1z = m.m21;
+        double c2x = m.m02, c2y = m.m12, c2z = m.m22;
+
+        double sx = Math.sqrt(c0x * c0x + c0y * c0y + c0z * c0z);
+        double sy = Math.sqrt(c1x * c1x + c1y * c1y + c1z * c1z);
+        double sz = Math.sqrt(c2x * c2x + c2y * c2y + c2z * c2z);
+        if (sx == 0 || sy == 0 || sz == 0) {
+            throw new IllegalStateException("Cannot decompose a degenerate transformation (zero scale)");
+        }
+        boolean sheared = Math.abs(c0x * c1x + c0y * c1y + c0z * c1z) > SHEAR_TOLERANCE * sx * sy
+                || Math.abs(c0x * c2x + c0y * c2y + c0z * c2z) > SHEAR_TOLERANCE * sx * sz
+                || Math.abs(c1x * c2x + c1y * c2y + c1z * c2z) > SHEAR_TOLERANCE * sy * sz;
+        if (m.determinant() < 0) {
+            sx = -sx;
+        }
+
+        double r00 = c0x / sx, r10 = c0y / sx, r20 = c0z / sx;
+        double r01 = c1x / sy, r11 = c1y / sy, r21 = c1z / sy;
+        if (sheared) {
+            double d = r00 * r01 + r10 * r11 + r20 * r21;
+            r01 -= d * r00;
+            r11 -= d * r10;
+            r21 -= d * r20;
+            double n = Math.sqrt(r01 * r01 + r11 * r11 + r21 * r21);
+            r01 /= n;
+            r11 /= n;
+            r21 /= n;
+        }
+        double r02 = r10 * r21 - r20 * r11;
+        double r12 = r20 * r01 - r00 * r21;
+        double r22 = r00 * r11 - r10 * r01;
+
+        double qx, qy, qz, qw;
+        double trace = r00 + r11 + r22;
+        if (trace > 0) {
+            double s = Math.sqrt(trace + 1.0) * 2;
+            qw = 0.25 * s;
+            qx = (r21 - r12) / s;
+            qy = (r02 - r20) / s;
+            qz = (r10 - r01) / s;
+        } else if (r00 > r11 && r00 > r22) {
+            double s = Math.sqrt(1.0 + r00 - r11 - r22) * 2;
+            qw = (r21 - r12) / s;
+            qx = 0.25 * s;
+            qy = (r01 + r10) / s;
+            qz = (r02 + r20) / s;
+        } else if (r11 > r22) {
+            double s = Math.sqrt(1.0 + r11 - r00 - r22) * 2;
+            qw = (r02 - r20) / s;
+            qx = (r01 + r10) / s;
+            qy = 0.25 * s;
+            qz = (r12 + r21) / s;
+        } else {
+            double s = Math.sqrt(1.0 + r22 - r00 - r11) * 2;
+            qw = (r10 - r01) / s;
+            qx = (r02 + r20) / s;
+            qy = (r12 + r21) / s;
+            qz = 0.25 * s;
+        }
+
+        dest[offset] = m.m03;
+        dest[offset + 1] = m.m13;
+        dest[offset + 2] = m.m23;
+        dest[offset + 3] = qx;
+        dest[offset + 4] = qy;
+        dest[offset + 5] = qz;
+        dest[offset + 6] = qw;
+        dest[offset + 7] = sx;
+        dest[offset + 8] = sy;
+        dest[offset + 9] = sz;
+        return sheared;
+    }
+
+    public Vector3d getTranslation() {
+        return new Vector3d(tx, ty, tz);
+    }
+
+    public Quat4d getRotation() {
+        return new Quat4d(qx, qy, qz, qw);
+    }
+
+    public Vector3d getScale() {
+        return new Vector3d(sx, sy, sz);
+    }
+
+    public boolean hasShear() {
+        return sheared;
+    }
+
+    public TrsTransformation toTransformation() {
+        return new TrsTransformation(tx, ty, tz, qx, qy, qz, qw, sx, sy, sz);
+    }
+
+    /**
+     * Записывает 10 чисел (tx, ty, tz, qx, qy, qz, qw, sx, sy, sz) начиная с {@code offset}.
+     */
+    public void toArray(double[] dest, int offset) {
+        dest[offset] = tx;
+        dest[offset + 1] = ty;
+        dest[offset + 2] = tz;
+        dest[offset + 3] = qx;
+        dest[offset + 4] = qy;
+        dest[offset + 5] = qz;
+        dest[offset + 6] = qw;
+        dest[offset + 7] = sx;
+        dest[offset + 8] = sy;
+        dest[offset + 9] = sz;
+    }
+}
@@ -0,0 +1,159 @@
+package vsu.cs.transformations;
+
+import vsu.cs.metrics.TransformationMetrics;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Quat4d;
+import javax.vecmath.Vector3d;
+
+/**
+ * Неизменяемое представление {@code T * R * S} из 10 чисел: перенос, кватернион поворота и масштаб.
+ * Экземпляр хранит только эти 10 чисел; коэффициенты матрицы 3x4 вычисляются при каждом обращении
+ * (9 выражений от полей, без выделения памяти).
+ */
+public final class TrsTransformation implements Transformation {
+    private final double tx, ty, tz;
+    private final double qx, qy, qz, qw;
+    private final double sx, sy, sz;
+
+    public TrsTransformation(double tx, double ty, double tz,
+                             double qx, double qy, double qz, double qw,
+                             double sx, double sy, double sz) {
+        double norm = Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+        if (norm == 0 || !Double.isFinite(norm)) {
+            throw new IllegalArgumentException("Invalid rotation quaternion");
+        }
+        this.tx = tx;
+        this.ty = ty;
+        this.tz = tz;
+        this.qx = qx / norm;
+        this.qy = qy / norm;
+        this.qz = qz / norm;
+        this.qw = qw / norm;
+        this.sx = sx;
+        this.sy = sy;
+        this.sz = sz;
+    }
+
+    public static TrsTransformation fromTRS(Vector3d translation, Quat4d rotation, Vector3d scale) {
+        return new TrsTransformation(
+                translation.x, translation.y, translation.z,
+                rotation.x, rotation.y, rotation.z, rotation.w,
+                scale.x, scale.y, scale.z
+        );
+    }
+
+    public Vector3d getTranslation() {
+        return new Vector3d(tx, ty, tz);
+    }
+
+    public Quat4d getRotation() {
+        return new Quat4d(qx, qy, qz, qw);
+    }
+
+    public Vector3d getScale() {
+        return new Vector3d(sx, sy, sz);
+    }
+
+    /**
+     * Записывает 10 чисел (tx, ty, tz, qx, qy, qz, qw, sx, sy, sz) начиная с {@code offset}.
+     */
+    public void toArray(double[] dest, int offset) {
+        dest[offset] = tx;
+        dest[offset + 1] = ty;
+        dest[offset + 2] = tz;
+        dest[offset + 3] = qx;
+        dest[offset + 4] = qy;
+        dest[offset + 5] = qz;
+        dest[offset + 6] = qw;
+        dest[offset + 7] = sx;
+        dest[offset + 8] = sy;
+        dest[offset + 9] = sz;
+    }
+
+    public static TrsTransformation fromArray(double[] source, int offset) {
+        return new TrsTransformation(
+                source[offset], source[offset + 1], source[offset + 2],
+                source[offset + 3], source[offset + 4], source[offset + 5], source[offset + 6],
+                source[offset + 7], source[offset + 8], source[offset + 9]
+        );
+    }
+
+    @Override
+    public void concatenateTo(AffineMatrix target) {
+        target.preMultiply(
+                r00(), r01(), r02(), tx,
+                r10(), r11(), r12(), ty,
+                r20(), r21(), r22(), tz
+        );
+    }
+
+    @Override
+    public Matrix4d getMatrix() {
+        Matrix4d matrix = AffineMatrix.newMatrix4d();
+        getMatrix(matrix);
+        return matrix;
+    }
+
+    @Override
+    public void getMatrix(Matrix4d dest) {
+        AffineMatrix.set(dest,
+                r00(), r01(), r02(), tx,
+                r10(), r11(), r12(), ty,
+                r20(), r21(), r22(), tz
+        );
+    }
+
+    @Override
+    public void apply(Point3d in, Point3d out) {
+        if (TransformationMetrics.ENABLED) {
+            TransformationMetrics.recordPoints(1);
+        }
+        double x = in.x, y = in.y, z = in.z;
+        out.set(
+                r00() * x + r01() * y + r02() * z + tx,
+                r10() * x + r11() * y + r12() * z + ty,
+                r20() * x + r21() * y + r22() * z + tz
+        );
+    }
+
+    /**
+     * Элементы {@code R * S}: столбец матрицы поворота, умноженный на масштаб по своей оси.
+     */
+    private double r00() {
+        return (1.0 - 2.0 * qy * qy - 2.0 * qz * qz) * sx;
+    }
+
+    private double r01() {
+        return 2.0 * (qx * qy - qw * qz) * sy;
+    }
+
+    private double r02() {
+        return 2.0 * (qx * qz + qw * qy) * sz;
+    }
+
+    private double r10() {
+        return 2.0 * (qx * qy + qw * qz) * sx;
+    }
+
+    private double r11() {
+        return (1.0 - 2.0 * qx * qx - 2.0 * qz * qz) * sy;
+    }
+
+    private double r12() {
+        return 2.0 * (qy * qz - qw * qx) * sz;
+    }
+
+    private double r20() {
+        return 2.0 * (qx * qz - qw * qy) * sx;
+    }
+
+    private double r21() {
+        return 2.0 * (qy * qz + qw * qx) * sy;
+    }
+
+    private double r22() {
+        return (1.0 - 2.0 * qx * qx - 2.0 * qy * qy) * sz;
+    }
+}
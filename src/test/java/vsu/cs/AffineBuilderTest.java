@@ -5,6 +5,8 @@ import vsu.cs.transformations.*;
 
 import javax.vecmath.Matrix4d;
 import javax.vecmath.Point3d;
+import javax.vecmath.Vector3d;
+import java.nio.FloatBuffer;
 
 import static junit.framework.Assert.*;
 
@@ -330,4 +332,396 @@ public class AffineBuilderTest {
         assertMatrixEquals(state1.getMatrix(), state1.getMatrix());
     }
 
+    @Test
+    void testApplyAllMatchesApply() {
+        Transformation transformation = new AffineBuilder()
+                .translate(5, 10, 15)
+                .rotateX(Math.PI / 4)
+                .rotateYQuat(Math.PI / 3)
+                .scale(2, 0.5, 3)
+                .build();
+
+        double[] xyz = {0, 0, 0, 1, 2, 3, -4, 5.5, 6, 7, -8, 9};
+        double[] out = new double[xyz.length];
+        transformation.applyAll(xyz, out, 3, 3);
+
+        for (int i = 1; i < 4; i++) {
+            Point3d expected = transformation.apply(new Point3d(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]));
+            assertEquals(expected.x, out[3 * i], 0);
+            assertEquals(expected.y, out[3 * i + 1], 0);
+            assertEquals(expected.z, out[3 * i + 2], 0);
+        }
+        assertEquals(0, out[0], 0);
+
+        transformation.applyAll(xyz, 3, 3);
+        for (int i = 3; i < xyz.length; i++) {
+            assertEquals(out[i], xyz[i], 0);
+        }
+    }
+
+    @Test
+    void testApplyAllOutOfBounds() {
+        Transformation transformation = new AffineBuilder().translateX(1).build();
+        double[] xyz = new double[6];
+        try {
+            transformation.applyAll(xyz, 3, 2);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    void testBuildIsSnapshot() {
+        AffineBuilder builder = new AffineBuilder().translate(1, 2, 3);
+        Transformation built = builder.build();
+        Matrix4d before = built.getMatrix();
+
+        builder.scaleUniform(10).rotateZ(Math.PI / 3);
+
+        assertMatrixEquals(before, built.getMatrix());
+        Point3d result = built.apply(new Point3d(1, 1, 1));
+        assertEquals(2, result.x, EPSILON);
+        assertEquals(3, result.y, EPSILON);
+        assertEquals(4, result.z, EPSILON);
+    }
+
+    @Test
+    void testCompiledMatchesComposite() {
+        CompositeTransformation composite = new CompositeTransformation();
+        composite.add(new TranslationTransformation(5, 10, 15));
+        composite.add(new RotateTransformation(Axis.X, Math.PI / 4));
+        composite.add(new RotateTransformationOnQuad(Axis.Y, Math.PI / 3));
+        composite.add(new ScaleTransformation(2, 0.5, 3));
+
+        AffineTransformation compiled = composite.compile();
+        assertMatrixEquals(composite.getMatrix(), compiled.getMatrix());
+
+        Point3d point = new Point3d(-1, 2, 7);
+        Point3d expected = composite.apply(point);
+        Point3d actual = compiled.apply(point);
+        assertEquals(expected.x, actual.x, 0);
+        assertEquals(expected.y, actual.y, 0);
+        assertEquals(expected.z, actual.z, 0);
+    }
+
+    @Test
+    void testAdjacentOperationsAreFused() {
+        CompositeTransformation composite = new CompositeTransformation(true);
+        composite.add(new ScaleTransformation(2, 1, 1));
+        composite.add(new ScaleTransformation(1, 3, 1));
+        composite.add(new TranslationTransformation(1, 2, 3));
+        composite.add(new TranslationTransformation(-4, 5, 6));
+        composite.add(new RotateTransformation(Axis.Z, Math.PI / 6));
+        composite.add(new RotateTransformation(Axis.Z, Math.PI / 3));
+        composite.add(new RotateTransformation(Axis.X, Math.PI / 3));
+        composite.add(new RotateTransformationOnQuad(Axis.Y, Math.PI / 5));
+        composite.add(new RotateTransformationOnQuad(Axis.Y, Math.PI / 7));
+
+        assertEquals(5, composite.size());
+
+        Matrix4d expected = new Matrix4d();
+        expected.setIdentity();
+        Transformation[] unfused = {
+                new ScaleTransformation(2, 1, 1),
+                new ScaleTransformation(1, 3, 1),
+                new TranslationTransformation(1, 2, 3),
+                new TranslationTransformation(-4, 5, 6),
+                new RotateTransformation(Axis.Z, Math.PI / 6),
+                new RotateTransformation(Axis.Z, Math.PI / 3),
+                new RotateTransformation(Axis.X, Math.PI / 3),
+                new RotateTransformationOnQuad(Axis.Y, Math.PI / 5),
+                new RotateTransformationOnQuad(Axis.Y, Math.PI / 7)
+        };
+        for (Transformation transformation : unfused) {
+            expected.mul(transformation.getMatrix(), expected);
+        }
+        assertMatrixEquals(expected, composite.getMatrix());
+    }
+
+    @Test
+    void testRemoveLastAndReplace() {
+        CompositeTransformation composite = new CompositeTransformation();
+        composite.add(new TranslationTransformation(1, 2, 3));
+        composite.add(new RotateTransformation(Axis.Z, Math.PI / 2));
+        Matrix4d beforeScale = composite.getMatrix();
+
+        composite.add(new ScaleTransformation(2, 2, 2));
+        composite.getMatrix();
+        Transformation removed = composite.removeLast();
+
+        assertTrue(removed instanceof ScaleTransformation);
+        assertEquals(2, composite.size());
+        assertMatrixEquals(beforeScale, composite.getMatrix());
+
+        composite.add(new ScaleTransformation(3, 3, 3));
+        composite.replace(0, new TranslationTransformation(-1, 0, 0));
+
+        CompositeTransformation reference = new CompositeTransformation();
+        reference.add(new TranslationTransformation(-1, 0, 0));
+        reference.add(new RotateTransformation(Axis.Z, Math.PI / 2));
+        reference.add(new ScaleTransformation(3, 3, 3));
+        assertMatrixEquals(reference.getMatrix(), composite.getMatrix());
+
+        composite.removeLast();
+        composite.removeLast();
+        composite.removeLast();
+        assertMatrixEquals(new AffineBuilder().build().getMatrix(), composite.getMatrix());
+        try {
+            composite.removeLast();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testEditingKeepsAddedOperations() {
+        CompositeTransformation composite = new CompositeTransformation();
+        composite.add(new TranslationTransformation(1, 0, 0));
+        composite.add(new ScaleTransformation(2, 2, 2));
+        composite.add(new ScaleTransformation(3, 3, 3));
+        assertEquals(3, composite.size());
+
+        composite.removeLast();
+        assertEquals(2, composite.getMatrix().m00, EPSILON);
+
+        composite.add(new TranslationTransformation(0, 1, 0));
+        composite.replace(1, new ScaleTransformation(5, 5, 5));
+        Matrix4d expected = new AffineBuilder().translateX(1).scaleUniform(5).translateY(1).build().getMatrix();
+        assertMatrixEquals(expected, composite.getMatrix());
+
+        composite.truncate(1);
+        assertMatrixEquals(new AffineBuilder().translateX(1).build().getMatrix(), composite.getMatrix());
+    }
+
+    @Test
+    void testParametricChainFollowsParameters() {
+        Parameter angle = new Parameter(0);
+        Parameter offset = new Parameter(1);
+        CompositeTransformation animated = new AffineBuilder()
+                .scale(2, 2, 2)
+                .rotate(Axis.Z, angle)
+                .translate(Axis.X, offset)
+                .buildAnimated();
+
+        Point3d point = new Point3d(1, 0, 0);
+        Point3d result = animated.apply(point);
+        assertEquals(3, result.x, EPSILON);
+        assertEquals(0, result.y, EPSILON);
+
+        angle.set(Math.PI / 2);
+        result = animated.apply(point);
+        assertEquals(1, result.x, EPSILON);
+        assertEquals(-2, result.y, EPSILON);
+
+        offset.set(-1);
+        AffineMatrix matrix = new AffineMatrix();
+        animated.concatenateTo(matrix);
+        Matrix4d expected = new AffineBuilder()
+                .scale(2, 2, 2)
+                .rotateZ(Math.PI / 2)
+                .translateX(-1)
+                .build()
+                .getMatrix();
+        assertMatrixEquals(expected, matrix.toMatrix4d());
+    }
+
+    @Test
+    void testParametricIndicesFollowEdits() {
+        Parameter first = new Parameter(1);
+        Parameter second = new Parameter(2);
+        CompositeTransformation composite = new CompositeTransformation();
+        composite.add(ParametricTranslationTransformation.along(Axis.X, first));
+        composite.add(new RotateTransformation(Axis.Z, Math.PI / 2));
+        composite.add(ParametricTranslationTransformation.along(Axis.Y, second));
+        composite.getMatrix();
+
+        composite.replace(0, new TranslationTransformation(5, 0, 0));
+        first.set(100);
+        second.set(3);
+        Matrix4d expected = new AffineBuilder().translateX(5).rotateZ(Math.PI / 2).translateY(3).build().getMatrix();
+        assertMatrixEquals(expected, composite.getMatrix());
+
+        composite.replace(1, ParametricTranslationTransformation.along(Axis.Z, first));
+        composite.removeLast();
+        first.set(-2);
+        second.set(7);
+        expected = new AffineBuilder().translateX(5).translateZ(-2).build().getMatrix();
+        assertMatrixEquals(expected, composite.getMatrix());
+
+        composite.truncate(1);
+        first.set(4);
+        assertMatrixEquals(new AffineBuilder().translateX(5).build().getMatrix(), composite.getMatrix());
+    }
+
+    @Test
+    void testFloatPathMatchesDoublePath() {
+        AffineBuilder builder = new AffineBuilder()
+                .translate(5, 10, 15)
+                .rotateX(Math.PI / 4)
+                .scale(2, 0.5, 3);
+        Transformation transformation = builder.build();
+        FloatAffineTransformation floatTransformation = builder.buildFloat();
+
+        float[] xyz = {1, 2, 3, -4, 5.5f, 6};
+        double[] expected = {1, 2, 3, -4, 5.5, 6};
+        transformation.applyAll(expected);
+
+        float[] out = new float[xyz.length];
+        floatTransformation.applyAll(xyz, out, 0, 2);
+        FloatBuffer buffer = FloatBuffer.wrap(xyz.clone());
+        floatTransformation.applyAll(buffer, 0, 2);
+        for (int i = 0; i < xyz.length; i++) {
+            assertEquals(expected[i], out[i], 1E-4);
+            assertEquals(out[i], buffer.get(i), 0);
+        }
+        assertEquals((float) transformation.getMatrix().m03, floatTransformation.getMatrix4f().m03, 0);
+    }
+
+    @Test
+    void testNormalsUseInverseTranspose() {
+        CompositeTransformation composite = new AffineBuilder()
+                .translate(5, -3, 2)
+                .rotateX(0.3)
+                .scale(2, 0.5, 3)
+                .rotateZQuat(1.1)
+                .rotateY(-0.7)
+                .buildAnimated();
+
+        Matrix4d inverseTranspose = composite.getMatrix();
+        inverseTranspose.invert();
+        inverseTranspose.transpose();
+        Matrix4d linear = composite.getMatrix();
+
+        double[] input = {1, 0, 0, 0.3, -2, 5};
+        double[] normals = new double[input.length];
+        double[] vectors = new double[input.length];
+        composite.applyNormal(input, normals, 0, 2);
+        composite.applyVector(input, vectors, 0, 2);
+
+        for (int p = 0; p < 2; p++) {
+            Vector3d v = new Vector3d(input[3 * p], input[3 * p + 1], input[3 * p + 2]);
+            Vector3d n = new Vector3d(v);
+            inverseTranspose.transform(n);
+            linear.transform(v);
+            assertEquals(n.x, normals[3 * p], EPSILON);
+            assertEquals(n.y, normals[3 * p + 1], EPSILON);
+            assertEquals(n.z, normals[3 * p + 2], EPSILON);
+            assertEquals(v.x, vectors[3 * p], EPSILON);
+            assertEquals(v.y, vectors[3 * p + 1], EPSILON);
+            assertEquals(v.z, vectors[3 * p + 2], EPSILON);
+        }
+
+        composite.add(new ScaleTransformation(0, 1, 1));
+        try {
+            composite.applyNormal(input, normals, 0, 2);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testInverseChain() {
+        Parameter angle = new Parameter(0.4);
+        CompositeTransformation composite = new AffineBuilder()
+                .translate(5, -3, 2)
+                .rotateX(0.3)
+                .scale(2, 0.5, 3)
+                .rotateXQuat(0.2)
+                .rotateZQuat(1.1)
+                .rotate(Axis.Y, angle)
+                .buildAnimated();
+
+        CompositeTransformation inverse = composite.inverse();
+        assertSame(inverse, composite.inverse());
+
+        Point3d point = new Point3d(1, 2, 3);
+        Point3d roundTrip = inverse.apply(composite.apply(point));
+        assertEquals(1, roundTrip.x, EPSILON);
+        assertEquals(2, roundTrip.y, EPSILON);
+        assertEquals(3, roundTrip.z, EPSILON);
+
+        angle.set(-1.3);
+        roundTrip = inverse.apply(composite.apply(point));
+        assertEquals(1, roundTrip.x, EPSILON);
+        assertEquals(2, roundTrip.y, EPSILON);
+        assertEquals(3, roundTrip.z, EPSILON);
+
+        try {
+            inverse.add(new TranslationTransformation(1, 0, 0));
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        composite.add(new ScaleTransformation(1, 0, 1));
+        try {
+            composite.inverse();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testSnapshotStack() {
+        AffineBuilder builder = new AffineBuilder().translateX(10);
+        Matrix4d base = builder.build().getMatrix();
+
+        builder.pushState().translateX(5).scaleUniform(2);
+        Matrix4d preview = builder.build().getMatrix();
+        builder.pushState().rotateZ(1);
+        assertEquals(2, builder.getStateDepth());
+
+        builder.restoreState();
+        assertMatrixEquals(preview, builder.build().getMatrix());
+        builder.rotateY(0.5).restoreState();
+        assertMatrixEquals(preview, builder.build().getMatrix());
+
+        builder.popState().popState();
+        assertEquals(0, builder.getStateDepth());
+        assertMatrixEquals(base, builder.build().getMatrix());
+
+        builder.pushState().scaleX(3).commitState();
+        assertMatrixEquals(new AffineBuilder().translateX(10).scaleX(3).build().getMatrix(), builder.build().getMatrix());
+        try {
+            builder.popState();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testEulerRotationMatchesSeparateRotations() {
+        for (EulerOrder order : EulerOrder.values()) {
+            AffineBuilder separate = new AffineBuilder().translate(1, 2, 3);
+            separate.rotate(order.getFirst(), 0.3).rotate(order.getSecond(), -1.2).rotate(order.getThird(), 2.1);
+            AffineBuilder fused = new AffineBuilder().translate(1, 2, 3).rotateEuler(order, 0.3, -1.2, 2.1);
+
+            assertMatrixEquals(separate.build().getMatrix(), fused.build().getMatrix());
+            assertEquals(2, fused.buildAnimated().size());
+        }
+    }
+
+    @Test
+    void testAxisAngleRotation() {
+        assertMatrixEquals(new AffineBuilder().rotateX(0.7).build().getMatrix(),
+                new AffineBuilder().rotate(new Vector3d(2, 0, 0), 0.7).build().getMatrix());
+        assertMatrixEquals(new AffineBuilder().rotateY(-0.7).build().getMatrix(),
+                new AffineBuilder().rotate(new Vector3d(0, 1, 0), 0.7).build().getMatrix());
+        assertMatrixEquals(new AffineBuilder().rotateZQuat(-0.7).build().getMatrix(),
+                new AffineBuilder().rotate(new Vector3d(0, 0, 1), -0.7).build().getMatrix());
+
+        Vector3d axis = new Vector3d(1, -2, 0.5);
+        Transformation rotation = new AffineBuilder().rotate(axis, 1.3).build();
+        Point3d onAxis = rotation.apply(new Point3d(axis));
+        assertEquals(axis.x, onAxis.x, EPSILON);
+        assertEquals(axis.y, onAxis.y, EPSILON);
+        assertEquals(axis.z, onAxis.z, EPSILON);
+        assertMatrixEquals(new Matrix4d(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1),
+                new AffineBuilder().rotate(axis, 1.3).rotate(axis, -1.3).build().getMatrix());
+
+        try {
+            new AffineBuilder().rotate(new Vector3d(), 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package vsu.cs.bulk;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.Transformation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static junit.framework.Assert.*;
+
+public class InstancedTransformerTest {
+
+    @Test
+    void testMatchesPerInstanceApplyAll() {
+        int instanceCount = 37;
+        int vertexCount = 53;
+        Transformation[] instances = new Transformation[instanceCount];
+        for (int i = 0; i < instanceCount; i++) {
+            instances[i] = new AffineBuilder().scale(1 + i, 2, 0.5).rotateY(0.1 * i).translate(i, 0, -i).build();
+        }
+        double[] vertices = new double[3 * vertexCount];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = i * 0.25 - 7;
+        }
+
+        double[] out = new double[3 * instanceCount * vertexCount];
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            new InstancedTransformer(pool, 4, 10)
+                    .applyAll(InstancedTransformer.pack(instances), instanceCount, vertices, vertexCount, out);
+        } finally {
+            pool.shutdown();
+        }
+
+        double[] expected = new double[vertices.length];
+        for (int i = 0; i < instanceCount; i++) {
+            instances[i].applyAll(vertices, expected, 0, vertexCount);
+            for (int k = 0; k < expected.length; k++) {
+                assertEquals(expected[k], out[3 * i * vertexCount + k], 0);
+            }
+        }
+    }
+
+    @Test
+    void testPooledBufferRequiresExplicitStride() {
+        Transformation[] instances = {
+                new AffineBuilder().translate(1, 0, 0).build(),
+                new AffineBuilder().scaleUniform(2).build()
+        };
+        double[] pooled = new double[12 * 8];
+        InstancedTransformer.pack(pooled, 8, instances);
+        double[] vertices = {1, 2, 3};
+        double[] out = new double[6];
+        InstancedTransformer transformer = new InstancedTransformer();
+        try {
+            transformer.applyAll(pooled, 2, vertices, 1, out);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        transformer.applyAll(pooled, 8, 2, vertices, 1, out);
+        assertTrue(Arrays.equals(new double[]{2, 2, 3, 2, 4, 6}, out));
+    }
+}
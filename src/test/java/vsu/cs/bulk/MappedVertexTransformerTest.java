@@ -0,0 +1,83 @@
+package vsu.cs.bulk;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.Transformation;
+import vsu.cs.transformations.TranslationTransformation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static junit.framework.Assert.*;
+
+public class MappedVertexTransformerTest {
+    private static final int HEADER = 16;
+    private static final int STRIDE = 32;
+
+    @Test
+    void testInterleavedFileInWindows() throws IOException {
+        Transformation transformation = new AffineBuilder()
+                .translate(1, 2, 3)
+                .rotateY(0.4)
+                .scale(2, 3, 4)
+                .build();
+
+        int count = 1001;
+        ByteBuffer data = ByteBuffer.allocate(HEADER + count * STRIDE).order(ByteOrder.LITTLE_ENDIAN);
+        double[] xyz = new double[3 * count];
+        for (int i = 0; i < count; i++) {
+            int base = HEADER + i * STRIDE;
+            for (int c = 0; c < 3; c++) {
+                xyz[3 * i + c] = i * 0.5 + c;
+                data.putDouble(base + c * Double.BYTES, xyz[3 * i + c]);
+            }
+            data.putDouble(base + 3 * Double.BYTES, -i);
+        }
+        transformation.applyAll(xyz);
+
+        Path input = Files.createTempFile("vertices", ".bin");
+        Path output = Files.createTempFile("vertices-out", ".bin");
+        try {
+            Files.write(input, data.array());
+            MappedVertexTransformer transformer = new MappedVertexTransformer(HEADER, STRIDE, 100, ByteOrder.LITTLE_ENDIAN);
+
+            assertEquals(count, transformer.transform(transformation, input, output));
+            assertVertices(xyz, ByteBuffer.wrap(Files.readAllBytes(output)).order(ByteOrder.LITTLE_ENDIAN));
+
+            assertEquals(count, transformer.transform(transformation, input));
+            assertVertices(xyz, ByteBuffer.wrap(Files.readAllBytes(input)).order(ByteOrder.LITTLE_ENDIAN));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(data.capacity());
+            direct.put(data.array());
+            assertEquals(count, transformer.transform(transformation, direct));
+            assertVertices(xyz, direct.order(ByteOrder.LITTLE_ENDIAN));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void testBufferOffsetMustBeAddressable() {
+        MappedVertexTransformer transformer = new MappedVertexTransformer(1L << 32, STRIDE);
+        try {
+            transformer.transform(new TranslationTransformation(1, 0, 0), ByteBuffer.allocate(STRIDE));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void assertVertices(double[] expected, ByteBuffer buffer) {
+        int count = expected.length / 3;
+        for (int i = 0; i < count; i++) {
+            int base = HEADER + i * STRIDE;
+            for (int c = 0; c < 3; c++) {
+                assertEquals(expected[3 * i + c], buffer.getDouble(base + c * Double.BYTES), 0);
+            }
+            assertEquals((double) -i, buffer.getDouble(base + 3 * Double.BYTES), 0);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package vsu.cs.bulk;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.Transformation;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static junit.framework.Assert.*;
+
+public class ParallelTransformerTest {
+
+    @Test
+    void testBitIdenticalToSequential() {
+        Transformation transformation = new AffineBuilder()
+                .translate(5, 10, 15)
+                .rotateX(Math.PI / 4)
+                .rotateYQuat(Math.PI / 3)
+                .scale(2, 0.5, 3)
+                .build();
+
+        int count = 100_003;
+        double[] xyz = new double[3 * count];
+        Random random = new Random(42);
+        for (int i = 0; i < xyz.length; i++) {
+            xyz[i] = random.nextDouble() * 1000 - 500;
+        }
+
+        double[] sequential = new double[xyz.length];
+        transformation.applyAll(xyz, sequential, 0, count);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[] parallel = new double[xyz.length];
+            new ParallelTransformer(pool, 1000, 777).applyAll(transformation, xyz, parallel, 0, count);
+            for (int i = 0; i < xyz.length; i++) {
+                assertEquals(sequential[i], parallel[i], 0);
+            }
+
+            new ParallelTransformer(pool, 0, 1024).applyAll(transformation, xyz, 0, count);
+            for (int i = 0; i < xyz.length; i++) {
+                assertEquals(sequential[i], xyz[i], 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidChunkSize() {
+        try {
+            new ParallelTransformer(ForkJoinPool.commonPool(), 10, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package vsu.cs.bulk;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.AffineTransformation;
+
+import java.util.Random;
+
+import static junit.framework.Assert.*;
+
+public class SoaTransformKernelTest {
+
+    @Test
+    void testKernelsMatchInterleavedPath() {
+        AffineTransformation transformation = new AffineBuilder()
+                .translate(5, 10, 15)
+                .rotateZ(Math.PI / 7)
+                .scale(2, 0.5, 3)
+                .build();
+
+        int count = 1027;
+        double[] xs = new double[count], ys = new double[count], zs = new double[count];
+        double[] xyz = new double[3 * count];
+        Random random = new Random(7);
+        for (int i = 0; i < count; i++) {
+            xs[i] = xyz[3 * i] = random.nextDouble() * 100;
+            ys[i] = xyz[3 * i + 1] = random.nextDouble() * 100;
+            zs[i] = xyz[3 * i + 2] = random.nextDouble() * 100;
+        }
+        transformation.applyAll(xyz);
+
+        for (SoaTransformKernel kernel : new SoaTransformKernel[]{ScalarSoaTransformKernel.INSTANCE, SoaTransformKernel.best()}) {
+            double[] outXs = new double[count], outYs = new double[count], outZs = new double[count];
+            kernel.apply(transformation, xs, ys, zs, outXs, outYs, outZs, 0, count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(xyz[3 * i], outXs[i], 0);
+                assertEquals(xyz[3 * i + 1], outYs[i], 0);
+                assertEquals(xyz[3 * i + 2], outZs[i], 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package vsu.cs.io;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.SaveTransformation;
+import vsu.cs.transformations.Transformation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static junit.framework.Assert.*;
+
+public class TransformationIoTest {
+    private static final int STATES = 1000;
+
+    @Test
+    void testRoundTripForEveryEncoding() throws IOException {
+        Transformation[] states = new Transformation[STATES];
+        for (int i = 0; i < STATES; i++) {
+            states[i] = new AffineBuilder().scale(1 + i % 3, 2, 0.5).rotateY(0.01 * i).rotateXQuat(-0.02 * i)
+                    .translate(i % 17, -3, 0.25 * (i % 5)).build();
+        }
+
+        assertRoundTrip(states, TransformationEncoding.AFFINE_DOUBLE, 0);
+        assertRoundTrip(states, TransformationEncoding.TRS_DOUBLE, 1E-12);
+        assertRoundTrip(states, TransformationEncoding.AFFINE_FLOAT, 1E-5);
+        assertRoundTrip(states, TransformationEncoding.TRS_FLOAT, 1E-5);
+        assertRoundTrip(states, TransformationEncoding.AFFINE_HALF, 1E-2);
+    }
+
+    @Test
+    void testBulkAndSaveTransformation() throws IOException {
+        double[] matrices = new double[12 * 3];
+        for (int i = 0; i < matrices.length; i++) {
+            matrices[i] = i * 0.5;
+        }
+        SaveTransformation save = new SaveTransformation(new AffineBuilder().rotateZ(1).translate(4, 5, 6).build().getMatrix());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TransformationWriter writer = new TransformationWriter(Channels.newChannel(bytes), TransformationEncoding.AFFINE_DOUBLE)) {
+            writer.writeAll(matrices, 0, 3);
+            writer.write(save);
+            assertEquals(4, writer.getCount());
+        }
+        assertEquals(8 + 4 * 96, bytes.size());
+
+        try (TransformationReader reader = new TransformationReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            double[] loaded = new double[12 * 3];
+            assertEquals(3, reader.readAll(loaded, 0, 3));
+            assertTrue(Arrays.equals(matrices, loaded));
+            assertEquals(save.getMatrix(), reader.read().getMatrix());
+            assertNull(reader.read());
+            assertEquals(-1, reader.readAll(loaded, 0, 1));
+        }
+    }
+
+    @Test
+    void testShearCannotBeStoredAsTrs() throws IOException {
+        AffineMatrix sheared = new AffineMatrix();
+        sheared.m01 = 0.5;
+        TransformationWriter writer = new TransformationWriter(Channels.newChannel(new ByteArrayOutputStream()), TransformationEncoding.TRS_FLOAT);
+        try {
+            writer.write(sheared);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    void testTruncatedStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TransformationWriter writer = new TransformationWriter(Channels.newChannel(bytes), TransformationEncoding.AFFINE_FLOAT)) {
+            writer.write(AffineTransformation.IDENTITY);
+        }
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        TransformationReader reader = new TransformationReader(Channels.newChannel(new ByteArrayInputStream(truncated)));
+        try {
+            reader.read(new AffineMatrix());
+            fail();
+        } catch (EOFException expected) {
+        }
+    }
+
+    @Test
+    void testHalfConversion() {
+        float[] exact = {0f, -0f, 1f, -2f, 0.5f, 65504f, 0x1p-24f, 0x1p-14f};
+        for (float value : exact) {
+            assertEquals(value, TransformationFormat.fromHalf(TransformationFormat.toHalf(value)));
+        }
+        assertEquals(Float.POSITIVE_INFINITY, TransformationFormat.fromHalf(TransformationFormat.toHalf(1E6f)));
+        assertTrue(Float.isNaN(TransformationFormat.fromHalf(TransformationFormat.toHalf(Float.NaN))));
+        assertEquals(1f, TransformationFormat.fromHalf(TransformationFormat.toHalf(1f + 0x1p-11f)));
+        assertEquals(1f + 0x1p-9f, TransformationFormat.fromHalf(TransformationFormat.toHalf(1f + 0x1p-10f + 0x1p-11f)));
+    }
+
+    private static void assertRoundTrip(Transformation[] states, TransformationEncoding encoding, double epsilon)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TransformationWriter writer = new TransformationWriter(Channels.newChannel(bytes), encoding, 256)) {
+            for (Transformation state : states) {
+                writer.write(state);
+            }
+        }
+        assertEquals(8 + (long) states.length * encoding.getRecordBytes(), bytes.size());
+
+        AffineMatrix expected = new AffineMatrix();
+        AffineMatrix actual = new AffineMatrix();
+        try (TransformationReader reader = new TransformationReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), 200)) {
+            assertEquals(encoding, reader.getEncoding());
+            for (Transformation state : states) {
+                assertTrue(reader.read(actual));
+                expected.setIdentity();
+                state.concatenateTo(expected);
+                double tolerance = epsilon * Math.max(1, Math.abs(expected.m03) + Math.abs(expected.m13) + Math.abs(expected.m23));
+                assertEquals(expected.m00, actual.m00, tolerance);
+                assertEquals(expected.m01, actual.m01, tolerance);
+                assertEquals(expected.m12, actual.m12, tolerance);
+                assertEquals(expected.m20, actual.m20, tolerance);
+                assertEquals(expected.m03, actual.m03, tolerance);
+                assertEquals(expected.m13, actual.m13, tolerance);
+                assertEquals(expected.m23, actual.m23, tolerance);
+            }
+            assertFalse(reader.read(actual));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package vsu.cs.metrics;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.CompositeTransformation;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.Axis;
+import vsu.cs.transformations.RotateTransformation;
+import vsu.cs.transformations.RotationCache;
+import vsu.cs.transformations.ScaleTransformation;
+import vsu.cs.transformations.TranslationTransformation;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import java.lang.management.ManagementFactory;
+
+import static junit.framework.Assert.*;
+
+/**
+ * Запускается отдельным прогоном surefire с {@code -Dvsu.cs.metrics=true} (см. pom.xml), без флага пропускается.
+ */
+public class TransformationMetricsEnabledTest {
+
+    @Test
+    void testCountersFollowRealOperations() throws Exception {
+        Assumptions.assumeTrue(TransformationMetrics.ENABLED);
+        CompositeTransformation composite = new AffineBuilder().scale(2, 2, 2).rotateX(0.5).translate(1, 2, 3)
+                .buildAnimated();
+        AffineTransformation compiled = new AffineBuilder().rotateZ(0.2).build();
+        RotationCache cache = new RotationCache(16);
+        Matrix4d dest = new Matrix4d();
+        Point3d out = new Point3d();
+        double[] xyz = new double[3 * 100];
+        TransformationMetrics.reset();
+
+        composite.getMatrix(dest);
+        composite.getMatrix(dest);
+        composite.apply(new Point3d(1, 1, 1), out);
+        new ScaleTransformation(2, 2, 2).apply(out, out);
+        new TranslationTransformation(1, 0, 0).apply(out, out);
+        new RotateTransformation(Axis.Y, 0.3).apply(out, out);
+        compiled.applyAll(xyz);
+        new AffineMatrix();
+        new ScaleTransformation(2, 2, 2).getMatrix();
+        cache.get(0.25);
+        cache.get(0.25);
+
+        MetricsSnapshot snapshot = TransformationMetrics.snapshot();
+        assertEquals(1, snapshot.getCompositeRecomputes());
+        assertEquals(2, snapshot.getCompositeCacheHits());
+        assertEquals(104, snapshot.getPointsTransformed());
+        // первый пересчёт заводит по префиксной матрице на операцию, плюс явная AffineMatrix и Matrix4d из getMatrix()
+        assertEquals(composite.size() + 2, snapshot.getMatricesAllocated());
+        assertEquals(1, snapshot.getCompositionLatency().getCount());
+        assertEquals(1, snapshot.getBulkApplyLatency().getCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TransformationMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(104L, server.getAttribute(name, "PointsTransformed"));
+        assertEquals(1L, server.getAttribute(name, "CompositeRecomputes"));
+        assertEquals(2L, server.getAttribute(name, "CompositeCacheHits"));
+        assertEquals(snapshot.getCompositionLatency().getMeanNanos(),
+                (Double) server.getAttribute(name, "CompositionMeanNanos"));
+    }
+}
@@ -0,0 +1,57 @@
+package vsu.cs.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static junit.framework.Assert.*;
+
+public class TransformationMetricsTest {
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentileNanos(0.5));
+
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(90 * 100 + 10 * 5000, snapshot.getTotalNanos());
+        assertEquals(127, snapshot.getPercentileNanos(0.5));
+        assertEquals(8191, snapshot.getPercentileNanos(0.99));
+    }
+
+    @Test
+    void testSnapshotAndMBean() throws Exception {
+        TransformationMetrics.reset();
+        TransformationMetrics.recordCacheHit();
+        TransformationMetrics.recordRecompute(System.nanoTime());
+        TransformationMetrics.recordBulkApply(1000, System.nanoTime());
+        TransformationMetrics.recordPoints(1);
+        TransformationMetrics.recordMatrixAllocation();
+
+        MetricsSnapshot snapshot = TransformationMetrics.snapshot();
+        assertEquals(1, snapshot.getCompositeCacheHits());
+        assertEquals(1, snapshot.getCompositeRecomputes());
+        assertEquals(1001, snapshot.getPointsTransformed());
+        assertEquals(1, snapshot.getMatricesAllocated());
+        assertEquals(1, snapshot.getCompositionLatency().getCount());
+        assertEquals(1, snapshot.getBulkApplyLatency().getCount());
+
+        TransformationMetrics.register();
+        TransformationMetrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TransformationMetrics.OBJECT_NAME);
+        assertEquals(1001L, server.getAttribute(name, "PointsTransformed"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, TransformationMetrics.snapshot().getPointsTransformed());
+    }
+}
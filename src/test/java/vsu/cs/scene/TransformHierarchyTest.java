@@ -0,0 +1,141 @@
+package vsu.cs.scene;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.transformations.AffineMatrix;
+import vsu.cs.transformations.AffineTransformation;
+import vsu.cs.transformations.Transformation;
+import vsu.cs.transformations.TranslationTransformation;
+
+import javax.vecmath.Point3d;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static junit.framework.Assert.*;
+
+public class TransformHierarchyTest {
+    private static final double EPSILON = 1E-10;
+
+    @Test
+    void testWorldIsParentTimesLocal() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        TransformNode root = hierarchy.createRoot(new AffineBuilder().translate(10, 0, 0).build());
+        TransformNode child = hierarchy.createNode(root, new AffineBuilder().scaleUniform(2).build());
+        TransformNode grandChild = hierarchy.createNode(child, new AffineBuilder().translate(0, 1, 0).build());
+
+        hierarchy.updateWorldTransforms();
+        assertPoint(grandChild.getWorldTransformation().apply(new Point3d(1, 1, 1)), 12, 4, 2);
+
+        root.setLocal(new AffineBuilder().translate(-10, 0, 0).build());
+        assertTrue(child.isDirty());
+        assertTrue(grandChild.isDirty());
+        assertPoint(grandChild.getWorldTransformation().apply(new Point3d(1, 1, 1)), -8, 4, 2);
+        assertFalse(child.isDirty());
+
+        hierarchy.remove(child);
+        assertEquals(1, hierarchy.size());
+        try {
+            hierarchy.createNode(grandChild, new AffineBuilder().build());
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    void testParallelLevelsMatchSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TransformHierarchy hierarchy = new TransformHierarchy(pool, 16);
+            TransformNode root = hierarchy.createRoot(new AffineBuilder().rotateZ(0.3).build());
+            List<TransformNode> leaves = new ArrayList<>();
+            List<Transformation> expected = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                AffineTransformation local = new AffineBuilder().translate(i, -i, 0).rotateX(0.01 * i).build();
+                TransformNode middle = hierarchy.createNode(root, local);
+                leaves.add(hierarchy.createNode(middle, new AffineBuilder().scaleUniform(1 + i).build()));
+                expected.add(new AffineBuilder().scaleUniform(1 + i).translate(i, -i, 0).rotateX(0.01 * i).rotateZ(0.3).build());
+            }
+            hierarchy.updateWorldTransforms();
+
+            Point3d point = new Point3d(1, 2, 3);
+            for (int i = 0; i < leaves.size(); i++) {
+                Point3d want = expected.get(i).apply(point);
+                assertPoint(leaves.get(i).getWorldTransformation().apply(point), want.x, want.y, want.z);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testOnlyDirtySubtreesAreUpdated() {
+        int[] updates = new int[1];
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        TransformNode root = hierarchy.createRoot(counting(updates, 1));
+        TransformNode left = hierarchy.createNode(root, counting(updates, 2));
+        TransformNode right = hierarchy.createNode(root, counting(updates, 3));
+        TransformNode leftLeaf = hierarchy.createNode(left, counting(updates, 4));
+        TransformNode rightLeaf = hierarchy.createNode(right, counting(updates, 5));
+        hierarchy.updateWorldTransforms();
+        assertEquals(5, updates[0]);
+
+        updates[0] = 0;
+        right.invalidate();
+        rightLeaf.invalidate();
+        assertTrue(rightLeaf.isDirty());
+        assertFalse(leftLeaf.isDirty());
+        hierarchy.updateWorldTransforms();
+        assertEquals(2, updates[0]);
+        assertPoint(rightLeaf.getWorldTransformation().apply(new Point3d()), 9, 0, 0);
+
+        updates[0] = 0;
+        left.setLocal(counting(updates, -2));
+        root.invalidate();
+        assertPoint(leftLeaf.getWorldTransformation().apply(new Point3d()), 3, 0, 0);
+        assertEquals(5, updates[0]);
+    }
+
+    @Test
+    void testRemoveKeepsSiblings() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        TransformNode root = hierarchy.createRoot(new TranslationTransformation(1, 0, 0));
+        List<TransformNode> children = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TransformNode child = hierarchy.createNode(root, new TranslationTransformation(0, i, 0));
+            hierarchy.createNode(child, new TranslationTransformation(0, 0, i));
+            children.add(child);
+        }
+        hierarchy.remove(children.get(2));
+        hierarchy.remove(children.get(0));
+        assertEquals(7, hierarchy.size());
+        assertEquals(3, root.getChildren().size());
+
+        root.setLocal(new TranslationTransformation(-1, 0, 0));
+        for (int i : new int[]{1, 3, 4}) {
+            TransformNode leaf = children.get(i).getChildren().get(0);
+            assertPoint(leaf.getWorldTransformation().apply(new Point3d()), -1, i, i);
+        }
+        try {
+            hierarchy.remove(children.get(2));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static Transformation counting(int[] updates, double x) {
+        return new TranslationTransformation(x, 0, 0) {
+            @Override
+            public void concatenateTo(AffineMatrix target) {
+                updates[0]++;
+                super.concatenateTo(target);
+            }
+        };
+    }
+
+    private static void assertPoint(Point3d point, double x, double y, double z) {
+        assertEquals(x, point.x, EPSILON);
+        assertEquals(y, point.y, EPSILON);
+        assertEquals(z, point.z, EPSILON);
+    }
+}
@@ -0,0 +1,106 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.CompositeTransformation;
+
+import javax.vecmath.Matrix4d;
+
+import static junit.framework.Assert.*;
+
+public class AffineMatrixTest {
+    private static final double EPSILON = 1E-10;
+
+    @Test
+    void testSpecializedKernelsMatchGeneralProduct() {
+        Transformation[] chain = {
+                new TranslationTransformation(1, -2, 3),
+                new RotateTransformation(Axis.X, 0.3),
+                new ScaleTransformation(2, 0.5, 3),
+                new RotateTransformation(Axis.Y, -1.1),
+                new RotateTransformationOnQuad(Axis.Z, 0.7),
+                new RotateTransformation(Axis.Z, 2.2),
+                new SaveTransformation(new RotateTransformationOnQuad(Axis.X, 0.4).getMatrix()),
+                new AffineTransformation(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)
+        };
+
+        AffineMatrix affine = new AffineMatrix();
+        Matrix4d expected = new Matrix4d();
+        expected.setIdentity();
+        for (Transformation transformation : chain) {
+            transformation.concatenateTo(affine);
+            expected.mul(transformation.getMatrix(), expected);
+        }
+
+        Matrix4d actual = affine.toMatrix4d();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(expected.getElement(i, j), actual.getElement(i, j), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void testPreTranslateOnlyTouchesTranslation() {
+        AffineMatrix affine = new AffineMatrix();
+        affine.preScale(2, 3, 4);
+        affine.preTranslate(1, 2, 3);
+
+        assertEquals(2, affine.m00, 0);
+        assertEquals(3, affine.m11, 0);
+        assertEquals(4, affine.m22, 0);
+        assertEquals(1, affine.m03, 0);
+        assertEquals(2, affine.m13, 0);
+        assertEquals(3, affine.m23, 0);
+    }
+
+    @Test
+    void testBoxMatchesTransformedCorners() {
+        Transformation transformation = new AffineBuilder()
+                .scale(2, -0.5, 3)
+                .rotateX(0.7)
+                .rotateZQuat(-1.2)
+                .translate(4, 5, -6)
+                .build();
+        double[] box = {-1, -2, -3, 4, 5, 6};
+        double[] result = new double[6];
+        transformation.transformBoxes(box, result, 0, 1);
+
+        double[] expected = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+                -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        double[] corner = new double[3];
+        for (int c = 0; c < 8; c++) {
+            corner[0] = (c & 1) == 0 ? box[0] : box[3];
+            corner[1] = (c & 2) == 0 ? box[1] : box[4];
+            corner[2] = (c & 4) == 0 ? box[2] : box[5];
+            transformation.applyAll(corner);
+            for (int k = 0; k < 3; k++) {
+                expected[k] = Math.min(expected[k], corner[k]);
+                expected[k + 3] = Math.max(expected[k + 3], corner[k]);
+            }
+        }
+        for (int k = 0; k < 6; k++) {
+            assertEquals(expected[k], result[k], EPSILON);
+        }
+    }
+
+    @Test
+    void testSphereRadiusUsesMaxScale() {
+        CompositeTransformation composite = new AffineBuilder()
+                .scale(2, -3, 1)
+                .rotateY(0.4)
+                .translate(1, 1, 1)
+                .buildAnimated();
+        assertEquals(3, composite.getMaxScale(), EPSILON);
+
+        double[] spheres = {0, 0, 0, 1, 1, 0, 0, 2};
+        composite.transformSpheres(spheres, 0, 2);
+        assertEquals(1, spheres[0], EPSILON);
+        assertEquals(3, spheres[3], EPSILON);
+        assertEquals(6, spheres[7], EPSILON);
+
+        AffineMatrix sheared = new AffineMatrix();
+        sheared.m01 = 1;
+        assertEquals((1 + Math.sqrt(5)) / 2, sheared.maxScale(), EPSILON);
+    }
+}
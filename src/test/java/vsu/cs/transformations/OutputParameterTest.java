@@ -0,0 +1,133 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.CompositeTransformation;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Quat4d;
+import javax.vecmath.Vector3d;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static junit.framework.Assert.*;
+
+public class OutputParameterTest {
+    private static final double EPSILON = 1E-10;
+
+    @Test
+    void testOverloadsMatchAllocatingVariants() {
+        Quat4d quat = new Quat4d(0.3, -0.2, 0.5, 0.8);
+        quat.normalize();
+        Transformation[] transformations = {
+                new ScaleTransformation(2, -3, 0.5),
+                new TranslationTransformation(1, 2, 3),
+                new RotateTransformation(Axis.X, 0.4),
+                new RotateTransformation(Axis.Y, -1.1),
+                new RotateTransformation(Axis.Z, 2.2),
+                new RotateTransformationOnQuad(Axis.Y, 0.9),
+                new RotateTransformationOnQuad(quat),
+                RotateTransformationOnMatrix.euler(EulerOrder.ZXY, 0.1, 0.2, 0.3),
+                TrsTransformation.fromTRS(new Vector3d(1, 0, -1), quat, new Vector3d(2, 2, 3)),
+                new ParametricScaleTransformation(new Parameter(1.5)),
+                new ParametricTranslationTransformation(new Parameter(1), new Parameter(-2), new Parameter(3)),
+                new ParametricRotateTransformation(Axis.Z, new Parameter(0.7)),
+                new ParametricRotateTransformation(Axis.X, new Parameter(0.7)).inverse(),
+                new SaveTransformation(new AffineBuilder().rotateX(1).translate(4, 5, 6).build()),
+                new AffineBuilder().scale(2, 1, 1).rotateYQuat(0.3).translate(7, 8, 9).build(),
+                new AffineBuilder().scale(2, 1, 1).rotateYQuat(0.3).translate(7, 8, 9).buildAnimated(),
+        };
+
+        Matrix4d dest = new Matrix4d();
+        Point3d out = new Point3d();
+        for (Transformation t : transformations) {
+            dest.setZero();
+            t.getMatrix(dest);
+            assertMatrixEquals(t.getMatrix(), dest);
+
+            Point3d in = new Point3d(1.5, -2, 4);
+            Point3d expected = new Point3d();
+            t.toAffineMatrix().transform(in, expected);
+            t.apply(in, out);
+            assertPointEquals(expected, out);
+            assertPointEquals(expected, t.apply(in));
+
+            t.apply(in, in);
+            assertPointEquals(expected, in);
+        }
+    }
+
+    @Test
+    void testQuaternionApplyMatchesApplyAllExactly() {
+        Quat4d quat = new Quat4d(0.3, -0.2, 0.5, 0.8);
+        quat.normalize();
+        Transformation[] rotations = {
+                new RotateTransformationOnQuad(quat),
+                new RotateTransformationOnQuad(Axis.X, 0.9),
+                new RotateTransformationOnQuad(Axis.Z, -2.3),
+        };
+        Random random = new Random(42);
+        double[] xyz = new double[3 * 10_000];
+        for (int i = 0; i < xyz.length; i++) {
+            xyz[i] = (random.nextDouble() - 0.5) * 1000;
+        }
+        Point3d out = new Point3d();
+        for (Transformation rotation : rotations) {
+            double[] bulk = xyz.clone();
+            rotation.applyAll(bulk);
+            for (int i = 0; i < xyz.length / 3; i++) {
+                rotation.apply(new Point3d(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]), out);
+                assertEquals(bulk[3 * i], out.x, 0);
+                assertEquals(bulk[3 * i + 1], out.y, 0);
+                assertEquals(bulk[3 * i + 2], out.z, 0);
+            }
+        }
+    }
+
+    @Test
+    void testOverloadsOnBuiltCompositeDoNotAllocate() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        CompositeTransformation composite = new AffineBuilder().scale(2, 1, 1).rotateX(0.3).rotateYQuat(-0.7)
+                .translate(7, 8, 9).buildAnimated();
+        Matrix4d dest = new Matrix4d();
+        Point3d in = new Point3d(1, 2, 3);
+        Point3d out = new Point3d();
+        repeat(composite, dest, in, out);
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - before;
+        before = threads.getThreadAllocatedBytes(thread);
+        repeat(composite, dest, in, out);
+        assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead);
+    }
+
+    /**
+     * Первый прогон прогревает код: переходы интерпретатора в скомпилированный код сами выделяют память.
+     */
+    private static void repeat(Transformation transformation, Matrix4d dest, Point3d in, Point3d out) {
+        for (int i = 0; i < 100_000; i++) {
+            transformation.getMatrix(dest);
+            transformation.apply(in, out);
+        }
+    }
+
+    private static void assertPointEquals(Point3d expected, Point3d actual) {
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+        assertEquals(expected.z, actual.z, EPSILON);
+    }
+
+    private static void assertMatrixEquals(Matrix4d expected, Matrix4d actual) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(expected.getElement(i, j), actual.getElement(i, j), EPSILON);
+            }
+        }
+    }
+}
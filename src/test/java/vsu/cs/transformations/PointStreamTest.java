@@ -0,0 +1,94 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+
+import javax.vecmath.Point3d;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static junit.framework.Assert.*;
+
+public class PointStreamTest {
+    private static final int POINTS = 10_007;
+
+    @Test
+    void testChainedStreamMatchesApplyAll() {
+        double[] xyz = IntStream.range(0, 3 * POINTS).mapToDouble(i -> i * 0.25 - 100).toArray();
+        double[] original = xyz.clone();
+        Transformation first = new AffineBuilder().scale(2, 3, 4).rotateX(0.3).build();
+        Transformation second = new AffineBuilder().rotateZQuat(-1.1).translate(5, 6, 7).build();
+
+        double[] expected = xyz.clone();
+        first.applyAll(expected);
+        second.applyAll(expected);
+
+        double[] sequential = first.stream(xyz).then(second).toArray();
+        double[] parallel = PointStream.of(xyz, 64).then(first).then(second).parallel().toArray();
+
+        assertTrue(Arrays.equals(original, xyz));
+        assertEquals(expected.length, sequential.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], sequential[i], 1E-9);
+        }
+        assertTrue(Arrays.equals(sequential, parallel));
+    }
+
+    @Test
+    void testChainIsFusedWhenTerminalOperationStarts() {
+        Parameter offset = new Parameter(1);
+        PointStream stream = PointStream.of(new double[]{0, 0, 0, 1, 1, 1})
+                .then(new ParametricTranslationTransformation(offset, new Parameter(0), new Parameter(0)));
+        offset.set(10);
+        assertTrue(Arrays.equals(new double[]{10, 0, 0, 11, 1, 1}, stream.toArray()));
+    }
+
+    @Test
+    void testPointAndChunkSources() {
+        Transformation translate = new TranslationTransformation(1, 2, 3);
+        List<Point3d> points = IntStream.range(0, 2500).mapToObj(i -> new Point3d(i, -i, 0)).collect(Collectors.toList());
+
+        List<Point3d> result = translate.stream(points.parallelStream()).parallel().points().collect(Collectors.toList());
+        assertEquals(points.size(), result.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(new Point3d(i + 1, -i + 2, 3), result.get(i));
+        }
+
+        double[] chunk = {1, 1, 1};
+        double[] transformed = translate.stream(Stream.of(chunk).spliterator()).chunks().findFirst().orElseThrow();
+        assertSame(chunk, transformed);
+        assertTrue(Arrays.equals(new double[]{2, 3, 4}, chunk));
+
+        try {
+            PointStream.ofChunks(Stream.of(new double[4])).then(translate).toArray();
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    void testStreamIsSingleUse() {
+        Transformation translate = new TranslationTransformation(1, 0, 0);
+        PointStream source = PointStream.of(new double[]{0, 0, 0});
+        PointStream derived = source.then(translate);
+
+        assertReused(() -> source.then(translate));
+        assertReused(source::parallel);
+        assertReused(source::toArray);
+
+        assertTrue(Arrays.equals(new double[]{1, 0, 0}, derived.toArray()));
+        assertReused(derived::chunks);
+        assertReused(derived::sequential);
+    }
+
+    private static void assertReused(Runnable action) {
+        try {
+            action.run();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
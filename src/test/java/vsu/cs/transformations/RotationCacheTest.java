@@ -0,0 +1,94 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.metrics.TransformationMetrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static junit.framework.Assert.*;
+
+public class RotationCacheTest {
+
+    @Test
+    void testLookups() {
+        RotationCache cache = new RotationCache(64);
+        RotationCache.SinCos first = cache.get(Math.PI / 6);
+        assertEquals(0.5, first.getSin(), 1E-15);
+        assertEquals(Math.cos(Math.PI / 6), first.getCos());
+        assertSame(first, cache.get(Math.PI / 6));
+        assertNotSame(first, cache.get(-Math.PI / 6));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(first, cache.get(Math.PI / 6));
+    }
+
+    @Test
+    void testCountersFollowMetricsFlag() {
+        RotationCache cache = new RotationCache(64);
+        cache.get(1.0);
+        cache.get(1.0);
+        long expected = TransformationMetrics.ENABLED ? 1 : 0;
+        assertEquals(expected, cache.getHitCount());
+        assertEquals(expected, cache.getMissCount());
+    }
+
+    @Test
+    void testRecentlyUsedEntrySurvives() {
+        RotationCache cache = new RotationCache(4);
+        assertEquals(4, cache.getCapacity());
+        RotationCache.SinCos kept = cache.get(0.0);
+        for (int i = 1; i <= 100; i++) {
+            cache.get(i);
+            assertSame(kept, cache.get(0.0));
+        }
+        assertTrue(cache.size() <= 4);
+        assertNotSame(cache.get(1.0), cache.get(2.0));
+    }
+
+    @Test
+    void testSingleSetCache() {
+        RotationCache cache = new RotationCache(1);
+        assertEquals(2, cache.getCapacity());
+        RotationCache.SinCos a = cache.get(0.25);
+        RotationCache.SinCos b = cache.get(0.5);
+        assertSame(a, cache.get(0.25));
+        assertSame(b, cache.get(0.5));
+        cache.get(0.75);
+        assertNotSame(a, cache.get(0.25));
+    }
+
+    @Test
+    void testConcurrentAccessStaysBounded() {
+        RotationCache cache = new RotationCache(128);
+        ForkJoinPool.commonPool().submit(() -> IntStream.range(0, 100_000).parallel()
+                .forEach(i -> assertEquals(Math.sin(i % 360), cache.get(i % 360).getSin()))).join();
+        assertTrue(cache.size() <= 128);
+    }
+
+    @Test
+    void testSnappedAnglesSpreadOverTable() {
+        RotationCache cache = new RotationCache(RotationCache.DEFAULT_CAPACITY);
+        RotationCache.SinCos[] first = new RotationCache.SinCos[1441];
+        for (int degrees = -720; degrees <= 720; degrees++) {
+            first[degrees + 720] = cache.get(Math.toRadians(degrees));
+        }
+        int misses = 0;
+        for (int degrees = -720; degrees <= 720; degrees++) {
+            if (cache.get(Math.toRadians(degrees)) != first[degrees + 720]) {
+                misses++;
+            }
+        }
+        assertTrue(misses < 300);
+    }
+
+    @Test
+    void testDisabledCacheStillComputes() {
+        RotationCache cache = new RotationCache(0);
+        assertEquals(1.0, cache.get(Math.PI / 2).getSin());
+        assertEquals(0, cache.size());
+        assertNotSame(cache.get(1.0), cache.get(1.0));
+    }
+}
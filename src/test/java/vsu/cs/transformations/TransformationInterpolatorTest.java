@@ -0,0 +1,46 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+
+import javax.vecmath.Matrix4d;
+
+import static junit.framework.Assert.*;
+
+public class TransformationInterpolatorTest {
+    private static final double EPSILON = 1E-9;
+
+    @Test
+    void testEndpointsAndMidpoint() {
+        Transformation from = new AffineBuilder().scaleUniform(1).rotateZQuat(0).translate(0, 0, 0).build();
+        Transformation to = new AffineBuilder().scale(3, 3, 3).rotateZQuat(Math.PI / 2).translate(10, -4, 2).build();
+        TransformationInterpolator interpolator = new TransformationInterpolator(from, to);
+
+        assertMatrixEquals(from.getMatrix(), interpolator.interpolate(0).getMatrix());
+        assertMatrixEquals(to.getMatrix(), interpolator.interpolate(1).getMatrix());
+
+        Matrix4d expected = new AffineBuilder().scale(2, 2, 2).rotateZ(Math.PI / 4).translate(5, -2, 1).build().getMatrix();
+        assertMatrixEquals(expected, interpolator.interpolate(0.5).getMatrix());
+
+        AffineMatrix nlerp = new AffineMatrix();
+        interpolator.interpolate(0.5, TransformationInterpolator.Mode.NLERP, nlerp);
+        assertMatrixEquals(expected, nlerp.toMatrix4d());
+    }
+
+    @Test
+    void testQuaternionChainIsFused() {
+        AffineBuilder builder = new AffineBuilder().rotateXQuat(0.3).rotateYQuat(0.5).rotateZQuat(0.7);
+        Transformation expected = new AffineBuilder().rotateX(0.3).rotateY(0.5).rotateZ(0.7).build();
+
+        assertEquals(1, builder.buildAnimated().size());
+        assertMatrixEquals(expected.getMatrix(), builder.build().getMatrix());
+    }
+
+    private void assertMatrixEquals(Matrix4d a, Matrix4d b) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(a.getElement(i, j), b.getElement(i, j), EPSILON);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package vsu.cs.transformations;
+
+import org.junit.jupiter.api.Test;
+import vsu.cs.AffineBuilder;
+import vsu.cs.CompositeTransformation;
+
+import javax.vecmath.AxisAngle4d;
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Quat4d;
+import javax.vecmath.Vector3d;
+
+import static junit.framework.Assert.*;
+
+public class TrsDecompositionTest {
+    private static final double EPSILON = 1E-9;
+
+    @Test
+    void testDecomposeRoundTrip() {
+        Transformation t = new AffineBuilder().scale(2, 3, -4).rotateX(0.3).rotateY(-1.1).rotateZ(2.5)
+                .translate(5, -6, 7).build();
+        TrsDecomposition trs = t.decompose();
+
+        assertFalse(trs.hasShear());
+        assertEquals(5, trs.getTranslation().x, EPSILON);
+        assertEquals(-6, trs.getTranslation().y, EPSILON);
+        assertEquals(7, trs.getTranslation().z, EPSILON);
+        assertEquals(24, Math.abs(trs.getScale().x * trs.getScale().y * trs.getScale().z), EPSILON);
+        assertMatrixEquals(t.getMatrix(), trs.toTransformation().getMatrix());
+    }
+
+    @Test
+    void testShearIsReported() {
+        AffineMatrix m = new AffineMatrix();
+        m.m01 = 0.5;
+        TrsDecomposition trs = new AffineTransformation(m).decompose();
+        assertTrue(trs.hasShear());
+    }
+
+    @Test
+    void testZeroScaleIsRejected() {
+        try {
+            new AffineBuilder().scale(1, 0, 1).build().decompose();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testFromTrsMatchesBuilder() {
+        Quat4d rotation = new Quat4d();
+        rotation.set(new AxisAngle4d(0, 0, 1, -Math.PI / 3));
+        TrsTransformation trs = TrsTransformation.fromTRS(new Vector3d(1, 2, 3), rotation, new Vector3d(2, 2, 5));
+
+        Matrix4d expected = new AffineBuilder().scale(2, 2, 5).rotateZ(Math.PI / 3).translate(1, 2, 3).build().getMatrix();
+        assertMatrixEquals(expected, trs.getMatrix());
+
+        double[] packed = new double[12];
+        trs.toArray(packed, 2);
+        assertMatrixEquals(expected, TrsTransformation.fromArray(packed, 2).getMatrix());
+    }
+
+    @Test
+    void testCompositeCachesDecomposition() {
+        CompositeTransformation composite = new AffineBuilder().scaleUniform(2).rotateY(0.4).buildAnimated();
+        TrsDecomposition first = composite.decompose();
+        assertSame(first, composite.decompose());
+
+        composite.add(new TranslationTransformation(1, 0, 0));
+        TrsDecomposition second = composite.decompose();
+        assertNotSame(first, second);
+        assertEquals(1, second.getTranslation().x, EPSILON);
+    }
+
+    private static void assertMatrixEquals(Matrix4d expected, Matrix4d actual) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(expected.getElement(i, j), actual.getElement(i, j), EPSILON);
+            }
+        }
+    }
+}